@@ -0,0 +1,63 @@
+// File: src/jmh/java/org/example/bench/BatchHasherBenchmark.java
+package org.example.bench;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.example.util.BatchHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Words per second through one BatchHasher call of BATCH words: scalar loop against multi-buffer SIMD
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class BatchHasherBenchmark {
+
+    @Param({"scalar", "vector"})
+    String hasher;
+
+    @Param({"8", "16", "55"})
+    int wordLength;
+
+    private BatchHasher engine;
+    private byte[] data;
+    private final int[] offsets = new int[BatchHasher.BATCH];
+    private final int[] lengths = new int[BatchHasher.BATCH];
+    private final long[] lanes = new long[BatchHasher.BATCH * 4];
+
+    @Setup
+    public void setup() {
+        engine = BatchHasher.named(hasher);
+        String word = "p@$$w0rd1234567890abcdefghijklmnopqrstuvwxyz0123456789ABCDEF".substring(0, wordLength);
+        byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+        data = new byte[BatchHasher.BATCH * wordLength];
+        for (int i = 0; i < BatchHasher.BATCH; i++) {
+            System.arraycopy(bytes, 0, data, i * wordLength, wordLength);
+            // Distinct messages so no lane repeats another's work
+            data[i * wordLength] = (byte) i;
+            offsets[i] = i * wordLength;
+            lengths[i] = wordLength;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BatchHasher.BATCH)
+    public long[] sha256Batch() {
+        engine.hash(data, offsets, lengths, BatchHasher.BATCH, lanes);
+        return lanes;
+    }
+}
@@ -0,0 +1,60 @@
+// File: src/jmh/java/org/example/bench/BenchData.java
+package org.example.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.example.tools.DatasetGenerator;
+
+// Locates the bundled datasets; override with -jvmArgsAppend -Dbench.datasets=<dir> on the JMH
+// command line (e.g. generated fixtures): it is read in the forked benchmark JVM.
+// A dataset named gen-<users>-<words> (e.g. -p dataset=gen-1e6-1e7) is produced by
+// DatasetGenerator on first use and cached under target/bench-datasets.
+final class BenchData {
+
+    private BenchData() {
+    }
+
+    static Path datasets() {
+        String configured = System.getProperty("bench.datasets");
+        if (configured != null) {
+            return Paths.get(configured);
+        }
+        // Works when launched from code/ or from code/target/
+        for (String candidate : new String[] {"../datasets", "../../datasets"}) {
+            Path path = Paths.get(candidate);
+            if (Files.isDirectory(path)) {
+                return path;
+            }
+        }
+        throw new IllegalStateException("Cannot find datasets/; pass -jvmArgsAppend -Dbench.datasets=<dir>");
+    }
+
+    static Path users(String dataset) {
+        return directory(dataset).resolve("in.txt");
+    }
+
+    static Path dictionary(String dataset) {
+        return directory(dataset).resolve("dictionary.txt");
+    }
+
+    private static Path directory(String dataset) {
+        if (!dataset.startsWith("gen-")) {
+            return datasets().resolve(dataset);
+        }
+        String[] sizes = dataset.split("-");
+        Path dir = Paths.get("target", "bench-datasets", dataset);
+        if (!Files.exists(dir.resolve("out.txt"))) {
+            try {
+                new DatasetGenerator((long) Double.parseDouble(sizes[1]), (long) Double.parseDouble(sizes[2]),
+                        0.8, 0.02, 42).generate(dir);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return dir;
+    }
+}
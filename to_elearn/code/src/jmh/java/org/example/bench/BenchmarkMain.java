@@ -0,0 +1,27 @@
+// File: src/jmh/java/org/example/bench/BenchmarkMain.java
+package org.example.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+// Entry point of benchmarks.jar: the stock JMH command line, always with -prof gc
+// so allocation-rate regressions (gc.alloc.rate.norm) show up next to throughput.
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListProfilers()
+                || cli.shouldListResultFormats() || cli.shouldListWithParams()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        Options options = new OptionsBuilder()
+                .parent(cli)
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,81 @@
+// File: src/jmh/java/org/example/bench/EndToEndBenchmark.java
+package org.example.bench;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.core.CrackingEngine;
+import org.example.core.DictionaryProcessor;
+import org.example.core.ExecutionBackend;
+import org.example.core.PasswordIndex;
+import org.example.core.StreamingCrackingEngine;
+import org.example.core.TargetIndex;
+import org.example.io.HashManager;
+import org.example.io.MappedTextFile;
+import org.example.model.CrackedCredential;
+import org.example.model.UserStore;
+import org.example.report.StatusReporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// A full run as App performs it (load users, load/hash dictionary, attack), minus the CSV write
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndBenchmark {
+
+    @Param({"small", "large"})
+    String dataset;
+
+    @Param({"batch", "stream"})
+    String mode;
+
+    @Param({"8"})
+    int threads;
+
+    @Benchmark
+    public int fullRun() throws Exception {
+        LongAdder passwordsFound = new LongAdder();
+        LongAdder usersChecked = new LongAdder();
+        LongAdder hashesComputed = new LongAdder();
+        LongAdder bytesProcessed = new LongAdder();
+        ConcurrentLinkedQueue<CrackedCredential> crackedQueue = new ConcurrentLinkedQueue<>();
+
+        UserStore users = new HashManager().loadUsers(BenchData.users(dataset).toString());
+        DictionaryProcessor processor = new DictionaryProcessor(hashesComputed);
+        MappedTextFile dictionary = processor.mapDictionary(BenchData.dictionary(dataset).toString());
+        // Interval 0 keeps the reporter silent
+        StatusReporter reporter = new StatusReporter(users.size(), passwordsFound, usersChecked, hashesComputed,
+                users.size(), usersChecked, 0);
+
+        if (mode.equals("stream")) {
+            try (ExecutionBackend backend = new ExecutionBackend(ExecutionBackend.Kind.FORKJOIN, threads)) {
+                new StreamingCrackingEngine(List.of(new TargetIndex(users)), dictionary, backend, passwordsFound,
+                        hashesComputed, bytesProcessed, crackedQueue::add, reporter,
+                        StreamingCrackingEngine.Options.DEFAULT).startAttack();
+            }
+        } else {
+            PasswordIndex passwordIndex = processor.buildDigestIndex(dictionary, threads);
+            try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+                CrackingEngine engine = new CrackingEngine(users, passwordIndex, passwordsFound, usersChecked,
+                        crackedQueue::add, reporter, users.size());
+                pool.submit(engine::startAttack).get();
+            }
+        }
+        return passwordsFound.intValue();
+    }
+}
@@ -0,0 +1,60 @@
+// File: src/jmh/java/org/example/bench/HasherBenchmark.java
+package org.example.bench;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.example.util.Hasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Single-word SHA-256 throughput: the hex String API against the allocation-free byte path
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HasherBenchmark {
+
+    // 55 bytes is the longest message that still fits a single SHA-256 block
+    @Param({"8", "16", "55"})
+    int wordLength;
+
+    private String word;
+    private byte[] bytes;
+    private final long[] lanes = new long[4];
+    private final byte[] out = new byte[Hasher.SHA256_BYTES];
+
+    @Setup
+    public void setup() {
+        word = "p@$$w0rd1234567890abcdefghijklmnopqrstuvwxyz0123456789ABCDEF".substring(0, wordLength);
+        bytes = word.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String sha256Hex() {
+        return Hasher.sha256(word);
+    }
+
+    @Benchmark
+    public byte[] sha256Bytes() {
+        Hasher.sha256(bytes, 0, bytes.length, out, 0);
+        return out;
+    }
+
+    @Benchmark
+    public long[] sha256Lanes() {
+        Hasher.sha256(bytes, 0, bytes.length, lanes);
+        return lanes;
+    }
+}
@@ -0,0 +1,96 @@
+// File: src/jmh/java/org/example/bench/LookupBenchmark.java
+package org.example.bench;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.core.CrackingEngine;
+import org.example.core.DictionaryProcessor;
+import org.example.core.PasswordIndex;
+import org.example.io.HashManager;
+import org.example.model.CrackedCredential;
+import org.example.model.UserStore;
+import org.example.report.StatusReporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// CrackingEngine.startAttack over every user of the large dataset; scores are per user looked up
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(LookupBenchmark.USERS)
+public class LookupBenchmark {
+
+    static final int USERS = 10_000; // datasets/large/in.txt
+
+    @Param({"binary", "string"})
+    String index;
+
+    @Param({"1", "8"})
+    int threads;
+
+    private UserStore users;
+    private PasswordIndex passwordIndex;
+    private ForkJoinPool pool;
+    private ConcurrentLinkedQueue<CrackedCredential> crackedQueue;
+    private LongAdder passwordsFound;
+    private LongAdder usersChecked;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        users = new HashManager().loadUsers(BenchData.users("large").toString());
+        DictionaryProcessor processor = new DictionaryProcessor(new LongAdder());
+        String dictionaryPath = BenchData.dictionary("large").toString();
+        if (index.equals("string")) {
+            Map<String, String> map = processor.preHashDictionary(processor.loadDictionary(dictionaryPath));
+            passwordIndex = (store, id) -> map.get(store.hashedPassword(id));
+        } else {
+            passwordIndex = processor.buildDigestIndex(processor.mapDictionary(dictionaryPath), threads);
+        }
+        pool = new ForkJoinPool(threads);
+    }
+
+    // Every invocation starts from uncracked users and empty counters
+    @Setup(Level.Invocation)
+    public void reset() {
+        users.resetCracked();
+        crackedQueue = new ConcurrentLinkedQueue<>();
+        passwordsFound = new LongAdder();
+        usersChecked = new LongAdder();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.close();
+    }
+
+    @Benchmark
+    public int startAttack() throws Exception {
+        // Interval 0 keeps the reporter silent
+        LongAdder hashes = new LongAdder();
+        StatusReporter reporter = new StatusReporter(users.size(), passwordsFound, usersChecked, hashes,
+                users.size(), usersChecked, 0);
+        CrackingEngine engine = new CrackingEngine(users, passwordIndex, passwordsFound, usersChecked,
+                crackedQueue::add, reporter, users.size());
+        pool.submit(engine::startAttack).get();
+        return passwordsFound.intValue();
+    }
+}
@@ -0,0 +1,65 @@
+// File: src/jmh/java/org/example/bench/PreHashBenchmark.java
+package org.example.bench;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.core.DictionaryProcessor;
+import org.example.core.PasswordIndex;
+import org.example.io.MappedTextFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Whole-dictionary pre-hashing: the String map reference against the sharded binary index
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PreHashBenchmark {
+
+    @Param({"large"})
+    String dataset;
+
+    private final DictionaryProcessor processor = new DictionaryProcessor(new LongAdder());
+    private MappedTextFile dictionary;
+    private List<String> words;
+
+    @Setup
+    public void setup() throws IOException {
+        String path = BenchData.dictionary(dataset).toString();
+        dictionary = processor.mapDictionary(path);
+        words = processor.loadDictionary(path);
+    }
+
+    // Thread counts only apply to the binary build, so they live in their own state
+    @State(Scope.Benchmark)
+    public static class Threads {
+        @Param({"1", "2", "4", "8"})
+        int threads;
+    }
+
+    @Benchmark
+    public PasswordIndex binaryIndex(Threads pool) throws Exception {
+        return processor.buildDigestIndex(dictionary, pool.threads);
+    }
+
+    // Sequential reference mode (--index=string)
+    @Benchmark
+    public Map<String, String> stringMapReference() {
+        return processor.preHashDictionary(words);
+    }
+}
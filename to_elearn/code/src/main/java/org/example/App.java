@@ -1,99 +1,583 @@
 // --- File: App.java ---
 package org.example; // <-- Adjusted to org.example
 
+import org.example.config.RunConfig;
+import org.example.core.Checkpoint;
 import org.example.core.CrackingEngine;
+import org.example.core.DictionaryCache;
 import org.example.core.DictionaryProcessor;
+import org.example.core.ExecutionBackend;
+import org.example.core.PasswordIndex;
+import org.example.core.SaltGroups;
+import org.example.core.ShardCoordinator;
+import org.example.core.ShardWorker;
+import org.example.core.SaltedCrackingEngine;
+import org.example.core.SortMergeJoinEngine;
+import org.example.core.RuleSet;
+import org.example.core.StreamingCrackingEngine;
+import org.example.core.TargetIndex;
+import org.example.core.WordDeduplicator;
+import org.example.core.WordStore;
 import org.example.io.HashManager;
+import org.example.io.MappedTextFile;
 import org.example.io.OutputWriter;
 import org.example.model.CrackedCredential;
-import org.example.model.User;
+import org.example.model.SaltTable;
+import org.example.model.UserStore;
+import org.example.report.RunMetrics;
 import org.example.report.StatusReporter;
+import org.example.util.BatchHasher;
+import org.example.util.HashAlgorithm;
+import org.example.util.Hasher;
 
 
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.Locale;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 
 public class App {
 
     // Global Atomic Counters for thread-safe shared state (Eliminate Race Conditions)
-    static AtomicInteger passwordsFound = new AtomicInteger(0);
+    // Striped LongAdders: workers only increment, the status reporter samples them
+    static LongAdder passwordsFound = new LongAdder();
     static LongAdder hashesComputed = new LongAdder();
-    static AtomicInteger usersChecked = new AtomicInteger(0);
-    static ConcurrentLinkedQueue<CrackedCredential> crackedQueue = new ConcurrentLinkedQueue<>();
-
-    private static final int THREAD_COUNT = Math.max(
-        8 , 
-        (int) (Runtime.getRuntime().availableProcessors() * 0.6)
-    );
+    static LongAdder usersChecked = new LongAdder();
+    // Dictionary bytes scanned by the streaming modes, once per pass (salt group, algorithm);
+    // bytesResumed is the part a resumed run took over from its checkpoint without scanning
+    static LongAdder bytesProcessed = new LongAdder();
+    static long bytesResumed;
 
     public static void main(String[] args) throws Exception {
 
         // --- 1. CONFIGURATION AND INITIALIZATION ---
         // Use command-line arguments as per instruction
-        if (args.length < 3) {
-            System.out.println("Usage: java -jar <jar-file-name>.jar <input_file> <dictionary_file> <output_file>");
+        RunConfig config;
+        try {
+            config = RunConfig.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            System.out.println(RunConfig.USAGE);
             System.exit(1);
+            return;
+        }
+        if (config.workerHost() != null) {
+            // Worker JVM of a --coordinator run: inputs and shards come over the connection
+            new ShardWorker(config.workerHost(), config.workerPort(), config.threads()).run();
+            return;
+        }
+        BatchHasher hasher;
+        try {
+            hasher = BatchHasher.named(config.hashEngine().name().toLowerCase(Locale.ROOT));
+        } catch (IllegalStateException e) {
+            System.out.println(e.getMessage());
+            System.exit(1);
+            return;
+        }
+        RuleSet rules = RuleSet.IDENTITY;
+        if (config.rulesPath() != null) {
+            try {
+                rules = RuleSet.load(Paths.get(config.rulesPath()));
+            } catch (IOException e) {
+                System.out.println("Cannot read rules file " + config.rulesPath() + ": " + e);
+                System.exit(1);
+                return;
+            } catch (IllegalArgumentException e) {
+                System.out.println(e.getMessage());
+                System.exit(1);
+                return;
+            }
         }
-        String usersPath = args[0];
-        String dictionaryPath = args[1];
-        String passwordsPath = args[2];
+        String usersPath = config.usersPath();
+        String passwordsPath = config.outputPath();
 
         long startTime = System.currentTimeMillis();
+        RunMetrics metrics = new RunMetrics();
+        ExecutionBackend backend = new ExecutionBackend(config.backend(), config.threads());
+        if (config.attackMode() == RunConfig.AttackMode.JOIN) {
+            // Out of core: neither the users nor the dictionary are loaded into the heap
+            try {
+                runJoinAttack(config, backend, metrics, startTime);
+            } finally {
+                backend.close();
+            }
+            return;
+        }
 
         // --- 2. DATA LOADING (Target Hash Loading/Management Component) ---
-        // long startTime2 = System.currentTimeMillis();
-
         HashManager hashManager = new HashManager();
-        Map<String, User> users = hashManager.loadUsers(usersPath);
+        // Salted input carries a salt column next to the users
+        SaltTable salts = config.attackMode() == RunConfig.AttackMode.SALTED ? new SaltTable() : null;
+        UserStore users = metrics.time("user_load", () -> hashManager.loadUsers(usersPath, salts));
+        if (!users.algorithms().equals(Set.of(HashAlgorithm.SHA256))) {
+            // Mixed or legacy input: the dictionary is hashed once per group below
+            StringBuilder groups = new StringBuilder();
+            for (HashAlgorithm algorithm : users.algorithms()) {
+                groups.append(groups.isEmpty() ? "" : ", ").append(algorithm.label()).append(": ")
+                        .append(users.count(algorithm));
+            }
+            System.out.println("Loaded " + users.size() + " users by hash algorithm (" + groups + ")");
+        }
 
-        DictionaryProcessor dictionaryProcessor = new DictionaryProcessor(hashesComputed);
-        List<String> dictionaryWords = dictionaryProcessor.loadDictionary(dictionaryPath);
+        DictionaryProcessor dictionaryProcessor = new DictionaryProcessor(hashesComputed, hasher);
 
-        ConcurrentHashMap<String, String> preHashedDictionary;
-        // System.out.println("time loading data (milliseconds): " + (System.currentTimeMillis() - startTime2));
+        // Resume: passwords found by the interrupted run are written once more and their users skipped
+        Checkpoint.State resumed = Checkpoint.State.EMPTY;
+        String fingerprint = null;
+        if (config.checkpointPath() != null) {
+            fingerprint = Checkpoint.fingerprint(Paths.get(usersPath), Paths.get(config.dictionaryPath()));
+            if (config.resume()) {
+                resumed = resume(config, fingerprint, users, salts);
+            }
+        }
 
-        // --- 3. PRE-HASHING (Sequential for optimal performance) ---
-        
-        // long startTime3 = System.currentTimeMillis();
+        // Results are written as they are found, overlapping with the attack
+        OutputWriter output = new OutputWriter(Paths.get(passwordsPath), config.sortOutput(),
+                backend.ioThreads("output-writer"));
+        resumed.cracked().forEach(output);
+        Checkpoint checkpoint = null;
+        Consumer<CrackedCredential> results = output;
+        if (fingerprint != null) {
+            checkpoint = new Checkpoint(Paths.get(config.checkpointPath()), fingerprint, resumed, output,
+                    config.checkpointIntervalSeconds() * 1000L);
+            results = checkpoint;
+        }
+
+        try {
+            if (checkpoint != null) {
+                checkpoint.start(backend.ioThreads("checkpoint"));
+            }
+            if (config.coordinatorPort() >= 0) {
+                runCoordinatedAttack(config, users, dictionaryProcessor, results, metrics);
+            } else if (config.attackMode() == RunConfig.AttackMode.STREAM) {
+                runStreamingAttack(config, users, dictionaryProcessor, results, checkpoint, resumed.offset(), rules,
+                        backend, metrics);
+            } else if (config.attackMode() == RunConfig.AttackMode.SALTED) {
+                runSaltedAttack(config, users, salts, dictionaryProcessor, results, metrics);
+            } else {
+                runBatchAttack(config, users, dictionaryProcessor, results, backend, metrics);
+            }
+        } finally {
+            try {
+                if (checkpoint != null) {
+                    checkpoint.close();
+                }
+            } finally {
+                try {
+                    metrics.run("output_write", output::close);
+                } finally {
+                    backend.close();
+                }
+            }
+        }
+        // Only reached after a completed attack; an interrupted one keeps its journal
+        if (checkpoint != null) {
+            checkpoint.delete();
+        }
+
+        System.out.println("\n\nAttack complete.");
+        System.out.println("Total passwords found: " + passwordsFound.sum());
+    System.out.println("Total dictionary hashes computed: " + hashesComputed.sum());
+        System.out.println("Total time spent (milliseconds): " + (System.currentTimeMillis() - startTime));
+        if (backend.taskLatency().count() > 0) {
+            System.out.println("Attack task latency (" + config.backend().name().toLowerCase(Locale.ROOT) + "): "
+                    + backend.taskLatency().summary("tasks"));
+        }
+
+        System.out.println("\nCracked password details have been written to " + passwordsPath);
+
+        if (config.metricsPath() != null) {
+            writeMetrics(config, users.size(), labels(users.algorithms()), backend, metrics);
+        }
+    }
+
+    // Merges the journal with whatever reached the output file; only verified credentials of loaded users count
+    private static Checkpoint.State resume(RunConfig config, String fingerprint, UserStore users, SaltTable salts)
+            throws IOException {
+        Path journalPath = Paths.get(config.checkpointPath());
+        Checkpoint.State journal = Checkpoint.load(journalPath, fingerprint);
+        if (journal == null) {
+            System.out.println("No checkpoint for these inputs at " + journalPath + "; starting the dictionary over.");
+            journal = Checkpoint.State.EMPTY;
+        }
+
+        List<CrackedCredential> candidates = new ArrayList<>(journal.cracked());
+        candidates.addAll(OutputWriter.read(Paths.get(config.outputPath())));
+        List<CrackedCredential> cracked = new ArrayList<>();
+        for (CrackedCredential credential : candidates) {
+            int id = users.find(credential.username());
+            if (id != UserStore.NOT_FOUND
+                    && users.hashedPassword(id).equalsIgnoreCase(credential.hashedPassword())
+                    && hashOf(config, users, salts, id, credential.plainPassword())
+                            .equalsIgnoreCase(credential.hashedPassword())
+                    && users.markCracked(id)) {
+                cracked.add(credential);
+            }
+        }
+        passwordsFound.add(cracked.size());
+        System.out.println("Resuming with " + cracked.size() + " passwords already found"
+                + (journal.offset() > 0 ? ", dictionary from byte " + journal.offset() : "") + ".");
+        return new Checkpoint.State(journal.offset(), cracked);
+    }
+
+    // Hex hash of a candidate password for a user, salted with the user's salt in salted mode
+    private static String hashOf(RunConfig config, UserStore users, SaltTable salts, int id, String plain) {
+        if (salts == null || salts.saltOf(id) == SaltTable.NO_SALT) {
+            return Hasher.hex(users.algorithm(id), plain);
+        }
+        byte[] message = config.saltPosition().message(salts.salt(salts.saltOf(id)),
+                plain.getBytes(StandardCharsets.UTF_8));
+        return Hasher.hex(users.algorithm(id), message);
+    }
+
+    private static void writeMetrics(RunConfig config, long totalUsers, String algorithms, ExecutionBackend backend,
+            RunMetrics metrics) throws Exception {
+        metrics.label("mode", config.coordinatorPort() >= 0 ? "coordinator"
+                : config.attackMode().name().toLowerCase(Locale.ROOT));
+        metrics.label("backend", config.backend().name().toLowerCase(Locale.ROOT));
+        metrics.label("index", config.cachePath() != null ? "cache" : config.indexMode().name().toLowerCase(Locale.ROOT));
+        metrics.label("algorithms", algorithms);
+        metrics.value("threads", config.threads());
+        metrics.value("users", totalUsers);
+        metrics.value("users_checked", usersChecked.sum());
+        metrics.value("passwords_found", passwordsFound.sum());
+        metrics.value("hashes_computed", hashesComputed.sum());
+
+        // Rates over the phase that did the hashing and over the lookup phase
+        double hashing = metrics.seconds("pre_hash") + (config.attackMode() != RunConfig.AttackMode.BATCH
+                || config.coordinatorPort() >= 0 ? metrics.seconds("attack") : 0);
+        double attack = metrics.seconds("attack");
+        metrics.value("hashes_per_second", hashing > 0 ? hashesComputed.sum() / hashing : 0);
+        if (config.attackMode() == RunConfig.AttackMode.BATCH && config.coordinatorPort() < 0) {
+            // Batch mode looks every user up against the pre-hashed dictionary
+            metrics.value("users_per_second", attack > 0 ? totalUsers / attack : 0);
+        } else {
+            // The other modes scan the dictionary past the users instead
+            long scanned = bytesProcessed.sum() - bytesResumed;
+            metrics.value("dictionary_bytes_per_second", attack > 0 ? scanned / attack : 0);
+        }
+        if (backend.taskLatency().count() > 0) {
+            // Blocks of users (batch) or dictionary batches (stream): tail latency per backend
+            metrics.latency("task_latency", backend.taskLatency());
+        }
+
+        metrics.write(Paths.get(config.metricsPath()), config.metricsFormat());
+        System.out.println("Metrics written to " + config.metricsPath());
+    }
+
+    // Pre-filter counts {passed, rejected, false positives}; the measured rate is over the probes that missed
+    private static void filterMetrics(RunConfig config, long[] counts, RunMetrics metrics) {
+        long negatives = counts[1] + counts[2];
+        metrics.value("bloom_fpr_target", config.bloomFpr());
+        metrics.value("bloom_passed", counts[0]);
+        metrics.value("bloom_rejected", counts[1]);
+        metrics.value("bloom_false_positives", counts[2]);
+        metrics.value("bloom_false_positive_rate", negatives > 0 ? (double) counts[2] / negatives : 0);
+    }
+
+    // SHA-256 keeps the configured cache file; other algorithms get a sibling file per algorithm
+    private static Path cachePath(RunConfig config, HashAlgorithm algorithm) {
+        String path = config.cachePath();
+        return Paths.get(algorithm == HashAlgorithm.SHA256 ? path : path + "." + algorithm.label());
+    }
+
+    private static String labels(Set<HashAlgorithm> algorithms) {
+        List<String> labels = new ArrayList<>();
+        algorithms.forEach(algorithm -> labels.add(algorithm.label()));
+        return String.join(",", labels);
+    }
+
+    // Pre-hash the whole dictionary, then look every user up in it
+    private static void runBatchAttack(RunConfig config, UserStore users,
+            DictionaryProcessor dictionaryProcessor, Consumer<CrackedCredential> results, ExecutionBackend backend,
+            RunMetrics metrics) throws Exception {
+        // One index per algorithm group; the dictionary is hashed once per group
+        Map<HashAlgorithm, PasswordIndex> passwordIndexes = new EnumMap<>(HashAlgorithm.class);
+
+        // --- 3. PRE-HASHING ---
+        if (config.indexMode() == RunConfig.IndexMode.STRING) {
+            // Reference mode: whole file as a List, hex String -> plaintext map
+            List<String> dictionaryWords = metrics.time("dictionary_load",
+                    () -> dictionaryProcessor.loadDictionary(config.dictionaryPath()));
+            metrics.run("pre_hash", () -> {
+                for (HashAlgorithm algorithm : users.algorithms()) {
+                    ConcurrentHashMap<String, String> preHashedDictionary =
+                            dictionaryProcessor.preHashDictionary(dictionaryWords, algorithm);
+                    passwordIndexes.put(algorithm, (store, id) -> preHashedDictionary.get(store.hashedPassword(id)));
+                }
+            });
+        } else if (config.indexMode() == RunConfig.IndexMode.COMPACT) {
+            // Distinct words only, front-coded; each group's index maps digests to word ids
+            MappedTextFile dictionary = metrics.time("dictionary_load",
+                    () -> dictionaryProcessor.mapDictionary(config.dictionaryPath()));
+            WordDeduplicator deduplicator = new WordDeduplicator(Paths.get(config.tempDir()));
+            WordStore store = metrics.time("dictionary_dedup", () -> deduplicator.deduplicate(dictionary));
+            System.out.println(deduplicator.status());
+            metrics.value("dictionary_words", deduplicator.lines());
+            metrics.value("dictionary_distinct_words", store.size());
+            metrics.value("dictionary_spill_partitions", deduplicator.partitions());
+            metrics.value("word_store_bytes", store.bytes());
+            metrics.run("pre_hash", () -> {
+                for (HashAlgorithm algorithm : users.algorithms()) {
+                    System.out.println("Pre-hashing " + store.size() + " distinct words for "
+                            + users.count(algorithm) + " " + algorithm.label() + " users...");
+                    passwordIndexes.put(algorithm,
+                            dictionaryProcessor.buildWordIndex(store, config.threads(), algorithm));
+                }
+            });
+        } else {
+            MappedTextFile dictionary = metrics.time("dictionary_load",
+                    () -> dictionaryProcessor.mapDictionary(config.dictionaryPath()));
+            metrics.run("pre_hash", () -> {
+                for (HashAlgorithm algorithm : users.algorithms()) {
+                    if (config.cachePath() != null) {
+                        // Persistent sorted index: mapped and searched, only re-hashed when stale or extended
+                        DictionaryCache cache = new DictionaryCache(hashesComputed, config.threads(), algorithm);
+                        passwordIndexes.put(algorithm, cache.openOrBuild(dictionary, cachePath(config, algorithm)));
+                        System.out.println(cache.status());
+                    } else if (algorithm == HashAlgorithm.SHA256) {
+                        // Memory-mapped dictionary hashed chunk-parallel into per-thread shards
+                        System.out.println("Pre-hashing with the " + dictionaryProcessor.hasherName()
+                                + " SHA-256 engine...");
+                        passwordIndexes.put(algorithm, dictionaryProcessor.buildDigestIndex(dictionary, config.threads()));
+                    } else {
+                        System.out.println("Pre-hashing for " + users.count(algorithm) + " "
+                                + algorithm.label() + " users...");
+                        passwordIndexes.put(algorithm,
+                                dictionaryProcessor.buildDigestIndex(dictionary, config.threads(), algorithm));
+                    }
+                }
+            });
+        }
 
-        // Pre-hashing runs sequentially on main thread - faster due to no thread contention
-        preHashedDictionary = dictionaryProcessor.preHashDictionary(dictionaryWords);
-        // System.out.println("time pre-hashing dictionary (milliseconds): " + (System.currentTimeMillis() - startTime3));
-        
-        
         // Create custom pool AFTER pre-hashing for the cracking phase
-        System.out.println("Starting attack with custom ForkJoinPool (" + THREAD_COUNT + " threads)...");
+        System.out.println("Starting attack with " + (backend.kind() == ExecutionBackend.Kind.VIRTUAL
+                ? "a fixed platform-thread pool" : "custom ForkJoinPool") + " (" + config.threads() + " threads)...");
         
         // --- 4. LIVE STATUS REPORTING ---
         long totalUsers = users.size();
-        StatusReporter reporter = new StatusReporter(totalUsers, passwordsFound, usersChecked);
+        StatusReporter reporter = new StatusReporter(totalUsers, passwordsFound, usersChecked, hashesComputed);
         
 
         // --- 5. CRACKING (Core Concurrent Cracking Engine) ---
-        try (ForkJoinPool customPool = new ForkJoinPool(THREAD_COUNT)) {
-            CrackingEngine crackingEngine = new CrackingEngine(
-                    users,
-                    preHashedDictionary,
-                    passwordsFound,
-                    usersChecked,
-                    crackedQueue,
-                    reporter,
-                    totalUsers   
-            );
-            customPool.submit(() -> crackingEngine.startAttack()).get();
-        }        System.out.println("\n\nAttack complete.");
-        System.out.println("Total passwords found: " + passwordsFound.get());
-    System.out.println("Total dictionary hashes computed: " + hashesComputed.sum());
+        CrackingEngine crackingEngine = new CrackingEngine(
+                users,
+                passwordIndexes,
+                passwordsFound,
+                usersChecked,
+                results,
+                reporter,
+                totalUsers,
+                backend
+        );
+        if (backend.kind() == ExecutionBackend.Kind.VIRTUAL) {
+            // The backend's hashing pool runs the blocks; this thread only waits for them
+            metrics.run("attack", crackingEngine::startAttack);
+            return;
+        }
+        try (ForkJoinPool customPool = new ForkJoinPool(config.threads())) {
+            metrics.run("attack", () -> customPool.submit(() -> crackingEngine.startAttack()).get());
+        }
+    }
+
+    // Index the users once and stream the dictionary past them; memory follows the user count
+    private static void runStreamingAttack(RunConfig config, UserStore users,
+            DictionaryProcessor dictionaryProcessor, Consumer<CrackedCredential> results, Checkpoint checkpoint,
+            long startOffset, RuleSet rules, ExecutionBackend backend, RunMetrics metrics) throws Exception {
+        List<TargetIndex> targets = new ArrayList<>();
+        metrics.run("target_index", () -> {
+            // One index per algorithm group; users cracked before a resume are left out
+            for (HashAlgorithm algorithm : users.algorithms()) {
+                targets.add(new TargetIndex(users, algorithm));
+            }
+        });
+        MappedTextFile dictionary = metrics.time("dictionary_load",
+                () -> dictionaryProcessor.mapDictionary(config.dictionaryPath()));
+
+        System.out.println("Starting streaming attack on " + targets.stream().mapToInt(TargetIndex::size).sum()
+                + " users (" + targets.stream().mapToInt(TargetIndex::distinctDigests).sum()
+                + " distinct hashes) with " + config.threads() + " threads ("
+                + config.backend().name().toLowerCase(Locale.ROOT) + " backend)"
+                + (rules == RuleSet.IDENTITY ? "" : " and " + rules.size() + " rules per word") + "...");
+
+        // Progress is measured in dictionary bytes consumed
+        bytesResumed = Math.min(startOffset, dictionary.size());
+        bytesProcessed.add(bytesResumed);
+        StatusReporter reporter = new StatusReporter(users.size(), passwordsFound, usersChecked, hashesComputed,
+                dictionary.size(), bytesProcessed, 1000);
+        StreamingCrackingEngine engine = new StreamingCrackingEngine(
+                targets,
+                dictionary,
+                backend,
+                passwordsFound,
+                hashesComputed,
+                bytesProcessed,
+                results,
+                reporter,
+                StreamingCrackingEngine.Options.DEFAULT
+                        .withRange(startOffset, dictionary.size())
+                        .withCheckpoint(checkpoint)
+                        .withBloomFpr(config.bloomFpr())
+                        .withRules(rules)
+        );
+        metrics.run("attack", engine::startAttack);
+        metrics.value("rules", rules.size());
+        if (engine.allCracked()) {
+            System.out.println("All users cracked; stopped reading the dictionary early.");
+        }
+        if (engine.filtered()) {
+            filterMetrics(config, engine.filterCounts(), metrics);
+        }
+    }
+
+    // Sort both sides into digest runs on disk and merge-join them; for inputs larger than the heap
+    private static void runJoinAttack(RunConfig config, ExecutionBackend backend, RunMetrics metrics, long startTime)
+            throws Exception {
+        MappedTextFile usersFile = MappedTextFile.map(Paths.get(config.usersPath()));
+        MappedTextFile dictionary = metrics.time("dictionary_load",
+                () -> MappedTextFile.map(Paths.get(config.dictionaryPath())));
+        Path tempDir = Paths.get(config.tempDir());
+        Files.createDirectories(tempDir);
+
+        OutputWriter output = new OutputWriter(Paths.get(config.outputPath()), config.sortOutput(),
+                backend.ioThreads("output-writer"));
+        SortMergeJoinEngine engine = new SortMergeJoinEngine(usersFile, dictionary, tempDir, config.threads(),
+                passwordsFound, hashesComputed, usersChecked, bytesProcessed, output);
+        try {
+            metrics.run("target_sort", engine::sortTargets);
+            System.out.println("Sorted " + engine.targetCount() + " targets into " + engine.targetRuns()
+                    + " run file(s) in " + tempDir + (engine.skippedLines() > 0
+                    ? " (" + engine.skippedLines() + " lines without a usable hash skipped)" : "") + ".");
+            System.out.println("Starting sort-merge join over " + labels(engine.algorithms()) + " with "
+                    + config.threads() + " threads...");
+            StatusReporter reporter = new StatusReporter(engine.targetCount(), passwordsFound, usersChecked,
+                    hashesComputed, dictionary.size() * engine.algorithms().size(), bytesProcessed, 1000);
+            metrics.run("attack", () -> engine.startAttack(reporter));
+        } finally {
+            metrics.run("output_write", output::close);
+        }
+
+        System.out.println("\n\nAttack complete.");
+        System.out.println("Total passwords found: " + passwordsFound.sum());
+        System.out.println("Total dictionary hashes computed: " + hashesComputed.sum());
         System.out.println("Total time spent (milliseconds): " + (System.currentTimeMillis() - startTime));
+        System.out.println("\nCracked password details have been written to " + config.outputPath());
+
+        if (config.metricsPath() != null) {
+            writeMetrics(config, engine.targetCount(), labels(engine.algorithms()), backend, metrics);
+        }
+    }
+
+    // Shard the dictionary over worker JVMs; this process hands out shards and collects the results
+    private static void runCoordinatedAttack(RunConfig config, UserStore users,
+            DictionaryProcessor dictionaryProcessor, Consumer<CrackedCredential> results, RunMetrics metrics)
+            throws Exception {
+        MappedTextFile dictionary = metrics.time("dictionary_load",
+                () -> dictionaryProcessor.mapDictionary(config.dictionaryPath()));
+        String fingerprint = Checkpoint.fingerprint(Paths.get(config.usersPath()), Paths.get(config.dictionaryPath()));
+
+        // Progress is measured in dictionary bytes over all workers
+        StatusReporter reporter = new StatusReporter(users.size(), passwordsFound, usersChecked, hashesComputed,
+                dictionary.size(), bytesProcessed, 1000);
+        List<Process> workers = new ArrayList<>();
+        try (ShardCoordinator coordinator = new ShardCoordinator(
+                users,
+                Paths.get(config.usersPath()),
+                dictionary,
+                fingerprint,
+                config.bloomFpr(),
+                config.coordinatorPort(),
+                passwordsFound,
+                hashesComputed,
+                bytesProcessed,
+                results,
+                reporter)) {
+            System.out.println("Coordinating " + coordinator.shardCount() + " dictionary shards on port "
+                    + coordinator.port() + (config.localWorkers() > 0
+                            ? ", starting " + config.localWorkers() + " local workers..."
+                            : "; start workers with --worker=<this host>:" + coordinator.port()));
+            workers.addAll(startLocalWorkers(config, coordinator.port()));
+            metrics.run("attack", coordinator::startAttack);
+            if (coordinator.allCracked()) {
+                System.out.println("All users cracked; remaining shards were not handed out.");
+            }
+            System.out.println("Workers: " + coordinator.workersSeen() + ", shards reassigned after a lost worker: "
+                    + coordinator.reassigned());
+            metrics.value("workers", coordinator.workersSeen());
+            metrics.value("shards", coordinator.shardCount());
+            metrics.value("shards_reassigned", coordinator.reassigned());
+        } finally {
+            for (Process worker : workers) {
+                if (!worker.waitFor(5, TimeUnit.SECONDS)) {
+                    worker.destroy();
+                }
+            }
+        }
+    }
+
+    // Worker JVMs on this machine with the same class path, sharing the configured threads
+    private static List<Process> startLocalWorkers(RunConfig config, int port) throws IOException {
+        List<Process> workers = new ArrayList<>();
+        String java = ProcessHandle.current().info().command().orElse("java");
+        int threads = Math.max(1, config.threads() / Math.max(1, config.localWorkers()));
+        for (int i = 0; i < config.localWorkers(); i++) {
+            workers.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), App.class.getName(),
+                    "--worker=localhost:" + port, "--threads=" + threads)
+                    .redirectOutput(Redirect.DISCARD)
+                    .redirectError(Redirect.INHERIT)
+                    .start());
+        }
+        return workers;
+    }
+
+    // Group the users by salt and hash the dictionary once per salt; groups and chunks share one pool
+    private static void runSaltedAttack(RunConfig config, UserStore users, SaltTable salts,
+            DictionaryProcessor dictionaryProcessor, Consumer<CrackedCredential> results, RunMetrics metrics)
+            throws Exception {
+        // Users cracked before a resume are left out, and with them fully cracked salts
+        SaltGroups groups = metrics.time("target_index", () -> new SaltGroups(users, salts));
+        MappedTextFile dictionary = metrics.time("dictionary_load",
+                () -> dictionaryProcessor.mapDictionary(config.dictionaryPath()));
+
+        System.out.println("Starting salted attack on " + groups.users() + " users in " + groups.size()
+                + " salt groups (" + config.saltPosition().name().toLowerCase(Locale.ROOT) + " salt) with "
+                + config.threads() + " threads...");
 
-        if (passwordsFound.get() > 0) {
-            OutputWriter.writeCrackedPasswordsToCSV(passwordsPath, crackedQueue);
+        // Progress is measured in dictionary bytes over all salt groups
+        StatusReporter reporter = new StatusReporter(users.size(), passwordsFound, usersChecked, hashesComputed,
+                dictionary.size() * groups.size(), bytesProcessed, 1000);
+        SaltedCrackingEngine engine = new SaltedCrackingEngine(
+                groups,
+                config.saltPosition(),
+                dictionary,
+                config.threads(),
+                passwordsFound,
+                hashesComputed,
+                bytesProcessed,
+                results,
+                reporter,
+                config.bloomFpr()
+        );
+        metrics.run("attack", engine::startAttack);
+        System.out.println(engine.summary(10));
+        if (engine.filtered()) {
+            filterMetrics(config, engine.filterCounts(), metrics);
         }
+        metrics.value("salt_groups", engine.groupCount());
+        metrics.value("salt_groups_cracked", engine.crackedGroups());
     }
-}
\ No newline at end of file
+}
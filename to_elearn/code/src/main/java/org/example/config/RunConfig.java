@@ -0,0 +1,353 @@
+// File: src/main/java/org/example/config/RunConfig.java
+package org.example.config;
+
+import org.example.core.ExecutionBackend;
+import org.example.core.SaltedCrackingEngine;
+import org.example.report.RunMetrics;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Command-line configuration: three positional paths followed by optional --flag=value options
+public class RunConfig {
+
+    public static final String USAGE =
+            "Usage: java -jar <jar-file-name>.jar <input_file> <dictionary_file> <output_file> [options]\n"
+            + "       java -jar <jar-file-name>.jar --worker=HOST:PORT [--threads=N]\n"
+            + "Input lines are username,hash[,algorithm] with algorithm md5|sha1|sha256|sha512;\n"
+            + "without it the algorithm is told by the hash length (32, 40, 64 or 128 hex digits)\n"
+            + "Options:\n"
+            + "  --index=binary|string|compact\n"
+            + "                          dictionary index: primitive digest index (default), hex String map, or\n"
+            + "                          compact: deduplicate the dictionary into a front-coded word store (spilling\n"
+            + "                          hash partitions to --temp-dir when large) and index digests by word id\n"
+            + "  --threads=N             worker threads for pre-hashing and the attack (default: all cores)\n"
+            + "  --mode=batch|stream|salted|join\n"
+            + "                          batch: pre-hash the dictionary, then look up users (default)\n"
+            + "                          stream: index the users, stream the dictionary past them\n"
+            + "                          salted: input lines are username,salt,hash[,algorithm]; the dictionary\n"
+            + "                          is hashed once per distinct salt\n"
+            + "                          join: sort users and dictionary digests into run files on disk and\n"
+            + "                          merge-join them, for inputs larger than the heap (every input line counts)\n"
+            + "  --temp-dir=PATH         join mode and --index=compact: directory for run and spill files\n"
+            + "                          (default: the output file's)\n"
+            + "  --salt-position=prefix|suffix\n"
+            + "                          salted mode: hash(salt + word) (default) or hash(word + salt)\n"
+            + "  --bloom-fpr=P           stream and salted modes: false-positive rate of the Bloom pre-filter in front\n"
+            + "                          of the target index (default: 0.01, 0 disables it)\n"
+            + "  --rules=PATH            stream mode: also try every word as mangled by each rule in PATH\n"
+            + "                          (l u c C t TN r d $X ^X [ ] DN sXY @X, one rule per line)\n"
+            + "  --cache[=PATH]          batch mode: keep the pre-hashed dictionary in a sorted on-disk index\n"
+            + "                          (default PATH: <dictionary_file>.digests), reused and extended across runs\n"
+            + "  --hasher=scalar|vector  SHA-256 engine for the batch pre-hash: one word at a time (default) or\n"
+            + "                          multi-buffer on the Vector API (needs --add-modules jdk.incubator.vector)\n"
+            + "  --backend=forkjoin|virtual\n"
+            + "                          forkjoin: batch lookups and stream-mode workers on ForkJoinPools (default)\n"
+            + "                          virtual: I/O stages (output writer, checkpoint flusher) on virtual\n"
+            + "                          threads, batch lookups and stream-mode workers on a fixed pool of --threads\n"
+            + "                          platform threads; salted, join and coordinator modes only change the I/O stages\n"
+            + "  --sort-output           rewrite the output file sorted once the attack is done (deterministic)\n"
+            + "  --checkpoint[=PATH]     journal found passwords and dictionary progress while running\n"
+            + "                          (default PATH: <output_file>.checkpoint), removed after a completed run\n"
+            + "  --checkpoint-interval=S seconds between checkpoint flushes (default: 10)\n"
+            + "  --resume                continue from the checkpoint and the existing output file\n"
+            + "  --coordinator[=PORT]    stream the dictionary through worker JVMs instead of local threads: cut it\n"
+            + "                          into shards and hand them to workers connecting on PORT (default: 7300)\n"
+            + "  --local-workers=N       with --coordinator: also start N worker JVMs on this machine\n"
+            + "  --worker=HOST:PORT      run as a worker of the coordinator at HOST:PORT; input paths come from the\n"
+            + "                          coordinator and must name the same files here (e.g. a shared filesystem)\n"
+            + "  --metrics=PATH          write phase timings, GC, heap and throughput metrics at the end of the run\n"
+            + "  --metrics-format=json|prometheus\n"
+            + "                          metrics file format (default: prometheus for *.prom, otherwise json)";
+
+    // How the pre-hashed dictionary is stored and probed
+    public enum IndexMode { BINARY, STRING, COMPACT }
+
+    // Which side is indexed: the dictionary (BATCH) or the target hashes (STREAM, and per salt for SALTED);
+    // JOIN indexes neither and sorts both on disk
+    public enum AttackMode { BATCH, STREAM, SALTED, JOIN }
+
+    // SHA-256 implementation used to pre-hash the dictionary (see BatchHasher.named)
+    public enum HashEngine { SCALAR, VECTOR }
+
+    private String usersPath;
+    private String dictionaryPath;
+    private String outputPath;
+    private IndexMode indexMode = IndexMode.BINARY;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private AttackMode attackMode = AttackMode.BATCH;
+    private SaltedCrackingEngine.SaltPosition saltPosition = SaltedCrackingEngine.SaltPosition.PREFIX;
+    private double bloomFpr = 0.01;
+    private String rulesPath;
+    private String tempDir;
+    private String cachePath;
+    private boolean cacheEnabled;
+    private HashEngine hashEngine = HashEngine.SCALAR;
+    private ExecutionBackend.Kind backend = ExecutionBackend.Kind.FORKJOIN;
+    private boolean sortOutput;
+    private String checkpointPath;
+    private boolean checkpointEnabled;
+    private int checkpointIntervalSeconds = 10;
+    private boolean resume;
+    private int coordinatorPort = -1;
+    private int localWorkers;
+    private String workerHost;
+    private int workerPort;
+    private String metricsPath;
+    private RunMetrics.Format metricsFormat;
+
+    private RunConfig() {
+    }
+
+    /**
+     * Parses the command line.
+     * @throws IllegalArgumentException on missing paths or an unknown/invalid option
+     */
+    public static RunConfig parse(String[] args) {
+        RunConfig config = new RunConfig();
+        List<String> positional = new ArrayList<>();
+
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                positional.add(arg);
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            String name = eq < 0 ? arg.substring(2) : arg.substring(2, eq);
+            String value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (name) {
+                case "index" -> config.indexMode = parseEnum(IndexMode.class, name, value);
+                case "threads" -> config.threads = parsePositiveInt(name, value);
+                case "mode" -> config.attackMode = parseEnum(AttackMode.class, name, value);
+                case "salt-position" -> config.saltPosition =
+                        parseEnum(SaltedCrackingEngine.SaltPosition.class, name, value);
+                case "bloom-fpr" -> config.bloomFpr = parseRate(name, value);
+                case "rules" -> config.rulesPath = requireValue(name, value);
+                case "temp-dir" -> config.tempDir = requireValue(name, value);
+                case "cache" -> {
+                    config.cacheEnabled = true;
+                    config.cachePath = value.isEmpty() ? null : value;
+                }
+                case "hasher" -> config.hashEngine = parseEnum(HashEngine.class, name, value);
+                case "backend" -> config.backend = parseEnum(ExecutionBackend.Kind.class, name, value);
+                case "sort-output" -> config.sortOutput = true;
+                case "checkpoint" -> {
+                    config.checkpointEnabled = true;
+                    config.checkpointPath = value.isEmpty() ? null : value;
+                }
+                case "checkpoint-interval" -> config.checkpointIntervalSeconds = parsePositiveInt(name, value);
+                case "resume" -> config.resume = true;
+                case "coordinator" -> config.coordinatorPort = value.isEmpty() ? 7300 : parsePort(name, value);
+                case "local-workers" -> config.localWorkers = parsePositiveInt(name, value);
+                case "worker" -> {
+                    int colon = value.lastIndexOf(':');
+                    if (colon <= 0) {
+                        throw new IllegalArgumentException("Invalid value for --worker (expected HOST:PORT): " + value);
+                    }
+                    config.workerHost = value.substring(0, colon);
+                    config.workerPort = parsePort(name, value.substring(colon + 1));
+                }
+                case "metrics" -> config.metricsPath = requireValue(name, value);
+                case "metrics-format" -> config.metricsFormat = parseEnum(RunMetrics.Format.class, name, value);
+                default -> throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        if (config.workerHost != null) {
+            // Everything else comes from the coordinator
+            return config;
+        }
+        if (positional.size() < 3) {
+            throw new IllegalArgumentException("Expected <input_file> <dictionary_file> <output_file>");
+        }
+        if (config.coordinatorPort >= 0 && config.attackMode == AttackMode.SALTED) {
+            throw new IllegalArgumentException("--coordinator runs the unsalted streaming attack; --mode=salted is not supported");
+        }
+        if (config.rulesPath != null && (config.attackMode != AttackMode.STREAM || config.coordinatorPort >= 0)) {
+            throw new IllegalArgumentException("--rules needs --mode=stream without --coordinator");
+        }
+        if (config.attackMode == AttackMode.JOIN && (config.coordinatorPort >= 0 || config.checkpointEnabled
+                || config.resume)) {
+            throw new IllegalArgumentException("--mode=join supports neither --coordinator nor --checkpoint/--resume");
+        }
+        if (config.indexMode == IndexMode.COMPACT && config.cacheEnabled) {
+            throw new IllegalArgumentException("--cache keeps its own on-disk index; it does not combine with --index=compact");
+        }
+        if (config.localWorkers > 0 && config.coordinatorPort < 0) {
+            throw new IllegalArgumentException("--local-workers needs --coordinator");
+        }
+        config.usersPath = positional.get(0);
+        config.dictionaryPath = positional.get(1);
+        config.outputPath = positional.get(2);
+        if (config.tempDir == null) {
+            Path parent = Paths.get(config.outputPath).toAbsolutePath().getParent();
+            config.tempDir = parent == null ? "." : parent.toString();
+        }
+        if (config.cacheEnabled && config.cachePath == null) {
+            config.cachePath = config.dictionaryPath + ".digests";
+        }
+        if ((config.checkpointEnabled || config.resume) && config.checkpointPath == null) {
+            config.checkpointPath = config.outputPath + ".checkpoint";
+        }
+        if (config.metricsFormat == null) {
+            boolean prom = config.metricsPath != null && config.metricsPath.endsWith(".prom");
+            config.metricsFormat = prom ? RunMetrics.Format.PROMETHEUS : RunMetrics.Format.JSON;
+        }
+        return config;
+    }
+
+    public String usersPath() {
+        return usersPath;
+    }
+
+    public String dictionaryPath() {
+        return dictionaryPath;
+    }
+
+    public String outputPath() {
+        return outputPath;
+    }
+
+    public IndexMode indexMode() {
+        return indexMode;
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    public AttackMode attackMode() {
+        return attackMode;
+    }
+
+    public SaltedCrackingEngine.SaltPosition saltPosition() {
+        return saltPosition;
+    }
+
+    // False-positive rate of the target pre-filter, 0 when disabled
+    public double bloomFpr() {
+        return bloomFpr;
+    }
+
+    // Word-mangling rules for the streaming attack, or null
+    public String rulesPath() {
+        return rulesPath;
+    }
+
+    // Directory for the join mode's run files
+    public String tempDir() {
+        return tempDir;
+    }
+
+    // Path of the persistent pre-hashed dictionary, or null when --cache is not set
+    public String cachePath() {
+        return cachePath;
+    }
+
+    public HashEngine hashEngine() {
+        return hashEngine;
+    }
+
+    public ExecutionBackend.Kind backend() {
+        return backend;
+    }
+
+    public boolean sortOutput() {
+        return sortOutput;
+    }
+
+    // Path of the progress journal, or null when neither --checkpoint nor --resume is set
+    public String checkpointPath() {
+        return checkpointPath;
+    }
+
+    public int checkpointIntervalSeconds() {
+        return checkpointIntervalSeconds;
+    }
+
+    public boolean resume() {
+        return resume;
+    }
+
+    // Port to coordinate workers on, or -1 when --coordinator is not set
+    public int coordinatorPort() {
+        return coordinatorPort;
+    }
+
+    public int localWorkers() {
+        return localWorkers;
+    }
+
+    // Coordinator host when running as a worker, otherwise null
+    public String workerHost() {
+        return workerHost;
+    }
+
+    public int workerPort() {
+        return workerPort;
+    }
+
+    // Path of the metrics export, or null when --metrics is not set
+    public String metricsPath() {
+        return metricsPath;
+    }
+
+    public RunMetrics.Format metricsFormat() {
+        return metricsFormat;
+    }
+
+    private static String requireValue(String name, String value) {
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Missing value for --" + name);
+        }
+        return value;
+    }
+
+    private static int parsePositiveInt(String name, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw new IllegalArgumentException("Invalid value for --" + name + ": " + value);
+    }
+
+    private static int parsePort(String name, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed >= 0 && parsed <= 65535) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw new IllegalArgumentException("Invalid value for --" + name + ": " + value);
+    }
+
+    // 0 (off) or a rate in (0, 0.5]
+    private static double parseRate(String name, String value) {
+        try {
+            double parsed = Double.parseDouble(value);
+            if (parsed >= 0 && parsed <= 0.5) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // fall through to the error below
+        }
+        throw new IllegalArgumentException("Invalid value for --" + name + ": " + value);
+    }
+
+    private static <E extends Enum<E>> E parseEnum(Class<E> type, String name, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for --" + name + ": " + value);
+        }
+    }
+}
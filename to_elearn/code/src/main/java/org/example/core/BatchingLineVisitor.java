@@ -0,0 +1,63 @@
+// File: src/main/java/org/example/core/BatchingLineVisitor.java
+package org.example.core;
+
+import java.nio.ByteBuffer;
+
+import org.example.io.MappedTextFile;
+import org.example.util.BatchHasher;
+
+/**
+ * Line visitor that packs up to BatchHasher.BATCH words into one buffer and hashes them
+ * with a single BatchHasher call, then hands each digest on in line order.
+ * Callers must call flush() after the last line. Not thread-safe: one per worker.
+ */
+abstract class BatchingLineVisitor implements MappedTextFile.LineVisitor {
+
+    long hashed;
+
+    private final BatchHasher hasher;
+    private final int[] offsets = new int[BatchHasher.BATCH];
+    private final int[] lengths = new int[BatchHasher.BATCH];
+    private final int[] sources = new int[BatchHasher.BATCH];   // line offsets in the region
+    private final long[] lanes = new long[BatchHasher.BATCH * DigestIndex.LANES];
+    private byte[] data = new byte[BatchHasher.BATCH * 32];
+    private int count;
+    private int size;
+
+    BatchingLineVisitor(BatchHasher hasher) {
+        this.hasher = hasher;
+    }
+
+    // Called in line order with the digest at lanes[base .. base + 3] and the word's bytes
+    abstract void hashed(long[] lanes, int base, byte[] word, int wordOffset, int length, int regionOffset);
+
+    @Override
+    public final void line(ByteBuffer region, int offset, int length) {
+        if (count == BatchHasher.BATCH || (count > 0 && size + length > data.length)) {
+            flush();
+        }
+        if (length > data.length) {
+            data = new byte[Math.max(length, data.length * 2)];
+        }
+        region.get(offset, data, size, length);
+        offsets[count] = size;
+        lengths[count] = length;
+        sources[count] = offset;
+        count++;
+        size += length;
+    }
+
+    // Hashes and delivers the pending words
+    final void flush() {
+        if (count == 0) {
+            return;
+        }
+        hasher.hash(data, offsets, lengths, count, lanes);
+        for (int i = 0; i < count; i++) {
+            hashed(lanes, i * DigestIndex.LANES, data, offsets[i], lengths[i], sources[i]);
+        }
+        hashed += count;
+        count = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,125 @@
+// File: src/main/java/org/example/core/BlockedBloomFilter.java
+package org.example.core;
+
+import org.example.model.UserStore;
+
+/**
+ * Cache-blocked Bloom filter over the digests of a TargetIndex, probed before the index
+ * so that the many dictionary words that miss touch one 64-byte block instead of the
+ * open-addressing table and the UserStore digest columns.
+ * The bits come straight from the digest, which is already uniformly random: the high
+ * half of lane 0 picks the block, 9-bit slices of lane 1 (then of lane 0's low half)
+ * pick the bits inside it. Lanes 0 and 1 are real digest bytes for every algorithm.
+ * The false-positive rate asked for is a target for the blocked layout: blocks fill
+ * unevenly, and the crowded ones let through more than a classic Bloom filter of the same
+ * size would, so the filter gets more blocks until its expected rate (expectedFpr) is at
+ * or below the target.
+ * No false negatives; read-only after construction and safe to share between threads.
+ */
+public final class BlockedBloomFilter {
+
+    // Indexes this small fit in cache anyway; a filter in front of them only adds work
+    static final int MIN_KEYS = 1024;
+
+    private static final int BLOCK_BITS = 512;
+    private static final int BLOCK_LONGS = BLOCK_BITS / Long.SIZE;
+    // 7 slices of lane 1 and 3 of lane 0's low 32 bits
+    private static final int MAX_HASHES = 10;
+
+    private final long[] bits;
+    private final long blocks;
+    private final int hashes;
+
+    /**
+     * @param keys expected number of distinct digests
+     * @param fpr  target false-positive rate, in (0, 0.5]
+     */
+    public BlockedBloomFilter(int keys, double fpr) {
+        this.hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round(-Math.log(fpr) / Math.log(2))));
+        // Classic Bloom sizing as the starting point, then ~1.5% more blocks at a time
+        double bitsPerKey = -Math.log(fpr) / (Math.log(2) * Math.log(2));
+        long blockCount = Math.max(1, (long) Math.ceil(keys * bitsPerKey / BLOCK_BITS));
+        while (expectedFpr(keys, blockCount, hashes) > fpr) {
+            blockCount += Math.max(1, blockCount / 64);
+        }
+        this.blocks = blockCount;
+        this.bits = new long[Math.toIntExact(blockCount * BLOCK_LONGS)];
+    }
+
+    /**
+     * Filter over the digests of an index.
+     * @return the filter, or null when fpr is 0 (disabled) or the index is below MIN_KEYS
+     */
+    public static BlockedBloomFilter of(TargetIndex index, double fpr) {
+        if (fpr <= 0 || index.distinctDigests() < MIN_KEYS) {
+            return null;
+        }
+        BlockedBloomFilter filter = new BlockedBloomFilter(index.distinctDigests(), fpr);
+        UserStore users = index.users();
+        for (int id = 0; id < index.size(); id++) {
+            int user = index.userId(id);
+            filter.add(users.lane(user, 0), users.lane(user, 1));
+        }
+        return filter;
+    }
+
+    public void add(long l0, long l1) {
+        int base = block(l0);
+        long h = l1;
+        for (int i = 0; i < hashes; i++) {
+            if (i == 7) {
+                h = l0;
+            }
+            int bit = (int) h & (BLOCK_BITS - 1);
+            bits[base + (bit >>> 6)] |= 1L << bit;
+            h >>>= 9;
+        }
+    }
+
+    // False only if the digest is certainly not in the index
+    public boolean mightContain(long l0, long l1) {
+        int base = block(l0);
+        long h = l1;
+        for (int i = 0; i < hashes; i++) {
+            if (i == 7) {
+                h = l0;
+            }
+            int bit = (int) h & (BLOCK_BITS - 1);
+            if ((bits[base + (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+            h >>>= 9;
+        }
+        return true;
+    }
+
+    /**
+     * False-positive rate of keys spread over blocks: the load of a block is Poisson with mean
+     * keys / blocks, and a block holding i keys is a BLOCK_BITS-bit Bloom filter with i keys.
+     */
+    static double expectedFpr(long keys, long blocks, int hashes) {
+        double mean = (double) keys / blocks;
+        double bitStaysClear = Math.pow(1 - 1.0 / BLOCK_BITS, hashes);
+        double probability = Math.exp(-mean);
+        double fpr = 0;
+        int maxLoad = (int) (mean + 12 * Math.sqrt(mean) + 16);
+        for (int load = 0; load <= maxLoad; load++) {
+            fpr += probability * Math.pow(1 - Math.pow(bitStaysClear, load), hashes);
+            probability *= mean / (load + 1);
+        }
+        return fpr;
+    }
+
+    public int hashes() {
+        return hashes;
+    }
+
+    public long sizeBytes() {
+        return bits.length * (long) Long.BYTES;
+    }
+
+    // First long of the digest's block: multiply-shift of lane 0's high half onto [0, blocks)
+    private int block(long l0) {
+        return (int) (((l0 >>> 32) * blocks) >>> 32) * BLOCK_LONGS;
+    }
+}
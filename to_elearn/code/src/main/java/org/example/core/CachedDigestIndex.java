@@ -0,0 +1,131 @@
+// File: src/main/java/org/example/core/CachedDigestIndex.java
+package org.example.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.example.io.DigestRunSorter;
+import org.example.io.MappedTextFile;
+import org.example.model.UserStore;
+import org.example.util.HashAlgorithm;
+import org.example.util.Hasher;
+
+/**
+ * PasswordIndex over a memory-mapped, sorted file of (digest, dictionary offset) records
+ * written by DictionaryCache. Digests are uniformly distributed, so an interpolation
+ * search on lane 0 lands next to the record in a couple of probes; it falls back to
+ * plain binary search if the estimate stops converging. The plaintext is read from the
+ * mapped dictionary at the stored offset and re-hashed before it is returned, so a
+ * record that no longer matches the dictionary can never produce a wrong password.
+ */
+public class CachedDigestIndex implements PasswordIndex {
+
+    private static final int MAX_INTERPOLATION_STEPS = 8;
+
+    private final ByteBuffer[] regions;
+    private final int recordsPerRegion;
+    private final long count;
+    private final MappedTextFile dictionary;
+    private final HashAlgorithm algorithm;
+
+    CachedDigestIndex(ByteBuffer[] regions, int recordsPerRegion, long count, MappedTextFile dictionary,
+            HashAlgorithm algorithm) {
+        this.regions = regions;
+        this.recordsPerRegion = recordsPerRegion;
+        this.count = count;
+        this.dictionary = dictionary;
+        this.algorithm = algorithm;
+    }
+
+    public long size() {
+        return count;
+    }
+
+    @Override
+    public String lookup(UserStore users, int id) {
+        if (!users.hasDigest(id)) {
+            return null;
+        }
+        long l0 = users.lane(id, 0);
+        long l1 = users.lane(id, 1);
+        long l2 = users.lane(id, 2);
+        long l3 = users.lane(id, 3);
+        long record = find(l0, l1, l2, l3);
+        return record < 0 ? null : verifiedPlaintext(l0, l1, l2, l3, payload(record));
+    }
+
+    // Record number holding the digest, or -1
+    long find(long l0, long l1, long l2, long l3) {
+        long lo = 0;
+        long hi = count - 1;
+        int steps = 0;
+        while (lo <= hi) {
+            long mid;
+            if (steps++ < MAX_INTERPOLATION_STEPS) {
+                long loKey = lane(lo, 0);
+                long hiKey = lane(hi, 0);
+                if (Long.compareUnsigned(l0, loKey) < 0 || Long.compareUnsigned(l0, hiKey) > 0) {
+                    return -1;
+                }
+                double span = unsigned(hiKey) - unsigned(loKey);
+                double fraction = span <= 0 ? 0.5 : (unsigned(l0) - unsigned(loKey)) / span;
+                mid = lo + (long) (fraction * (hi - lo));
+                mid = Math.max(lo, Math.min(hi, mid));
+            } else {
+                mid = (lo + hi) >>> 1;
+            }
+            int c = compareAt(mid, l0, l1, l2, l3);
+            if (c == 0) {
+                return mid;
+            } else if (c < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return -1;
+    }
+
+    private String verifiedPlaintext(long l0, long l1, long l2, long l3, long offset) {
+        byte[] word = dictionary.lineAt(offset);
+        if (word == null) {
+            return null;
+        }
+
+        long[] check = new long[DigestIndex.LANES];
+        Hasher.hash(algorithm, word, 0, word.length, check, 0);
+        if (check[0] != l0 || check[1] != l1 || check[2] != l2 || check[3] != l3) {
+            return null;
+        }
+        return new String(word, StandardCharsets.UTF_8);
+    }
+
+    // Compares the record's digest with the key (unsigned, lane by lane)
+    private int compareAt(long record, long l0, long l1, long l2, long l3) {
+        int c = Long.compareUnsigned(lane(record, 0), l0);
+        if (c == 0) {
+            c = Long.compareUnsigned(lane(record, 1), l1);
+        }
+        if (c == 0) {
+            c = Long.compareUnsigned(lane(record, 2), l2);
+        }
+        if (c == 0) {
+            c = Long.compareUnsigned(lane(record, 3), l3);
+        }
+        return c;
+    }
+
+    private long lane(long record, int lane) {
+        return regions[(int) (record / recordsPerRegion)]
+                .getLong((int) (record % recordsPerRegion) * DigestRunSorter.RECORD_BYTES + lane * 8);
+    }
+
+    private long payload(long record) {
+        return lane(record, DigestIndex.LANES);
+    }
+
+    private static double unsigned(long value) {
+        double d = (double) (value >>> 1) * 2.0;
+        return d + (value & 1);
+    }
+}
@@ -0,0 +1,230 @@
+// File: src/main/java/org/example/core/Checkpoint.java
+package org.example.core;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.example.model.CrackedCredential;
+
+/**
+ * Append-only progress journal for resuming long attacks. Workers only enqueue found
+ * credentials and finished dictionary byte ranges on lock-free queues; a daemon thread
+ * periodically appends the new credentials and the contiguous processed prefix of the
+ * dictionary to the journal and forces it to disk, so checkpointing never blocks a worker.
+ *
+ * Journal lines: a header with the input fingerprint, then "cracked user,hash,plain"
+ * and "offset N" records. A torn last line from a crash is ignored on load.
+ */
+public class Checkpoint implements Consumer<CrackedCredential>, AutoCloseable {
+
+    private static final String MAGIC = "se301-checkpoint 1 ";
+    private static final String CRACKED = "cracked ";
+    private static final String OFFSET = "offset ";
+
+    // What a checkpoint recorded: dictionary prefix fully processed and the credentials found
+    public record State(long offset, List<CrackedCredential> cracked) {
+        public static final State EMPTY = new State(0, List.of());
+    }
+
+    // Absolute dictionary byte range [from, to) a worker has finished
+    private record Range(long from, long to) {}
+
+    private final Path path;
+    private final Consumer<CrackedCredential> downstream;
+    private final long intervalMillis;
+    private final ConcurrentLinkedQueue<CrackedCredential> found = new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<Range> completed = new ConcurrentLinkedQueue<>();
+    private final FileChannel channel;
+    private final Writer journal;
+    private ScheduledExecutorService flusher;
+
+    // Only touched by the flusher thread (and by close() after it has finished)
+    private final TreeMap<Long, Long> pending = new TreeMap<>();
+    private long offset;
+    private long journaledOffset;
+    private IOException failure;
+
+    /**
+     * Starts a fresh journal holding the given state; results are passed on to downstream.
+     * @param fingerprint identifies the inputs, see {@link #fingerprint(Path, Path)}
+     */
+    public Checkpoint(Path path, String fingerprint, State initial, Consumer<CrackedCredential> downstream,
+            long intervalMillis) throws IOException {
+        this.path = path;
+        this.downstream = downstream;
+        this.intervalMillis = intervalMillis;
+        this.offset = initial.offset();
+        this.journaledOffset = initial.offset();
+
+        // Rewritten through a temp file so a crash here leaves the previous journal intact
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            out.write(MAGIC + fingerprint + "\n");
+            for (CrackedCredential credential : initial.cracked()) {
+                writeCracked(out, credential);
+            }
+            out.write(OFFSET + initial.offset() + "\n");
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        this.channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.journal = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8));
+    }
+
+    // Size and modification time of both inputs; a journal for other inputs is not resumed
+    public static String fingerprint(Path users, Path dictionary) throws IOException {
+        return Files.size(users) + ":" + Files.getLastModifiedTime(users).toMillis() + ":"
+                + Files.size(dictionary) + ":" + Files.getLastModifiedTime(dictionary).toMillis();
+    }
+
+    /**
+     * Reads a journal back.
+     * @return the recorded state, or null if the file is missing or belongs to other inputs
+     */
+    public static State load(Path path, String fingerprint) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        // Anything after the last newline is a record torn by a crash
+        content = content.substring(0, content.lastIndexOf('\n') + 1);
+        String[] lines = content.split("\n");
+        if (lines.length == 0 || !lines[0].equals(MAGIC + fingerprint)) {
+            return null;
+        }
+
+        long offset = 0;
+        List<CrackedCredential> cracked = new ArrayList<>();
+        for (int i = 1; i < lines.length; i++) {
+            String line = lines[i];
+            if (line.startsWith(OFFSET)) {
+                offset = Long.parseLong(line.substring(OFFSET.length()));
+            } else if (line.startsWith(CRACKED)) {
+                int first = line.indexOf(',', CRACKED.length());
+                int second = line.indexOf(',', first + 1);
+                if (first > 0 && second > 0) {
+                    cracked.add(new CrackedCredential(line.substring(CRACKED.length(), first),
+                            line.substring(first + 1, second), line.substring(second + 1)));
+                }
+            }
+        }
+        return new State(offset, cracked);
+    }
+
+    // Called by the workers for every new result
+    @Override
+    public void accept(CrackedCredential credential) {
+        found.add(credential);
+        downstream.accept(credential);
+    }
+
+    // Called by a worker once every line in [from, to) of the dictionary has been probed
+    public void completed(long from, long to) {
+        completed.add(new Range(from, to));
+    }
+
+    // Starts the background flusher
+    public void start() {
+        start(Thread.ofPlatform().name("checkpoint").daemon().factory());
+    }
+
+    // Starts the background flusher on a thread made by threads, e.g. a virtual one
+    public synchronized void start(ThreadFactory threads) {
+        if (flusher != null) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(threads);
+        flusher.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // Stops the flusher, writes the final state and closes the journal
+    @Override
+    public synchronized void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flusher = null;
+        }
+        try {
+            flush();
+            journal.close();
+        } finally {
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // Removes the journal after a completed run
+    public void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    private void flush() {
+        if (failure != null) {
+            return;
+        }
+        // Ranges first: a worker queues its results before reporting the range done,
+        // so every credential below the new offset is drained right after
+        Range range;
+        while ((range = completed.poll()) != null) {
+            pending.put(range.from(), range.to());
+        }
+        Long to;
+        while ((to = pending.remove(offset)) != null) {
+            offset = to;
+        }
+
+        try {
+            boolean dirty = false;
+            CrackedCredential credential;
+            while ((credential = found.poll()) != null) {
+                writeCracked(journal, credential);
+                dirty = true;
+            }
+            if (offset != journaledOffset) {
+                journal.write(OFFSET + offset + "\n");
+                journaledOffset = offset;
+                dirty = true;
+            }
+            if (dirty) {
+                journal.flush();
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            // Stop journaling; the attack itself carries on and close() reports it
+            failure = e;
+        }
+    }
+
+    private static void writeCracked(Writer out, CrackedCredential credential) throws IOException {
+        out.write(CRACKED + credential.username() + "," + credential.hashedPassword() + ","
+                + credential.plainPassword() + "\n");
+    }
+}
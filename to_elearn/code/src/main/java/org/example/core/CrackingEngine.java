@@ -1,67 +1,131 @@
 // File: src/main/java/org/example/core/CrackingEngine.java
 package org.example.core;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 import org.example.model.CrackedCredential;
-import org.example.model.User;
+import org.example.model.UserStore;
 import org.example.report.StatusReporter;
+import org.example.util.HashAlgorithm;
 
 // The Core Concurrent Cracking Engine
 public class CrackingEngine {
 
-    private final Map<String, User> users;
-    private final ConcurrentHashMap<String, String> preHashedDictionary;
-    private final AtomicInteger passwordsFound;
-    private final AtomicInteger usersChecked;
-    private final ConcurrentLinkedQueue<CrackedCredential> crackedQueue;
+    // Most users per attack task; tasks are what the execution backend schedules and times
+    static final int BLOCK_USERS = 4096;
+
+    private final UserStore users;
+    private final PasswordIndex[] indexes;   // by HashAlgorithm ordinal, null if not built
+    private final LongAdder passwordsFound;
+    private final LongAdder usersChecked;
+    private final Consumer<CrackedCredential> results;
     private final StatusReporter reporter; 
     private final long totalUsers;  
+    private final ExecutionBackend backend;
 
     public CrackingEngine(
-            Map<String, User> users,
-            ConcurrentHashMap<String, String> preHashedDictionary,
-            AtomicInteger passwordsFound,
-            AtomicInteger usersChecked,
-            ConcurrentLinkedQueue<CrackedCredential> crackedQueue,
+            UserStore users,
+            PasswordIndex passwordIndex,
+            LongAdder passwordsFound,
+            LongAdder usersChecked,
+            Consumer<CrackedCredential> results,
             StatusReporter reporter, 
             long totalUsers) {       
+        this(users, Map.of(HashAlgorithm.SHA256, passwordIndex), passwordsFound, usersChecked, results,
+                reporter, totalUsers);
+    }
+
+    // One index per algorithm group; users of an algorithm without an index are only counted
+    public CrackingEngine(
+            UserStore users,
+            Map<HashAlgorithm, ? extends PasswordIndex> passwordIndexes,
+            LongAdder passwordsFound,
+            LongAdder usersChecked,
+            Consumer<CrackedCredential> results,
+            StatusReporter reporter,
+            long totalUsers) {
+        this(users, passwordIndexes, passwordsFound, usersChecked, results, reporter, totalUsers,
+                new ExecutionBackend(ExecutionBackend.Kind.FORKJOIN, 1));
+    }
+
+    // backend runs the blocks of users: parallel stream (FORKJOIN) or the bounded hashing pool (VIRTUAL)
+    public CrackingEngine(
+            UserStore users,
+            Map<HashAlgorithm, ? extends PasswordIndex> passwordIndexes,
+            LongAdder passwordsFound,
+            LongAdder usersChecked,
+            Consumer<CrackedCredential> results,
+            StatusReporter reporter,
+            long totalUsers,
+            ExecutionBackend backend) {
         this.users = users;
-        this.preHashedDictionary = preHashedDictionary;
+        this.indexes = new PasswordIndex[HashAlgorithm.values().length];
+        passwordIndexes.forEach((algorithm, index) -> indexes[algorithm.ordinal()] = index);
         this.passwordsFound = passwordsFound;
         this.usersChecked = usersChecked;
-        this.crackedQueue = crackedQueue;
+        this.results = results;
         this.reporter = reporter;
         this.totalUsers = totalUsers; 
+        this.backend = backend;
     }
 
     // Handles the fixed O(U) complexity lookup (High-Performance Concurrency)
     public void startAttack() {
-        users.values().parallelStream().forEach(user -> {
-            try {
-                // O(1) Lookup: Efficient lookup replaces the nested loop.
-                String crackedPassword = preHashedDictionary.get(user.hashedPassword());
+        reporter.start();
+        try {
+            attack();
+        } finally {
+            // Final report after all tasks complete
+            reporter.stop();
+        }
+    }
+
+    private void attack() {
+        // Even, contiguous id blocks: the store's spliterator halved down to BLOCK_USERS ids or fewer
+        List<Spliterator.OfInt> blocks = new ArrayList<>();
+        split(users.idSpliterator(), blocks);
+        backend.forEachTask(blocks.size(), block -> blocks.get(block).forEachRemaining((IntConsumer) this::check));
+    }
+
+    private static void split(Spliterator.OfInt ids, List<Spliterator.OfInt> blocks) {
+        Spliterator.OfInt prefix;
+        while (ids.estimateSize() > BLOCK_USERS && (prefix = ids.trySplit()) != null) {
+            split(prefix, blocks);
+        }
+        blocks.add(ids);
+    }
+
+    private void check(int id) {
+        try {
+            if (users.isCracked(id)) {
+                // Already cracked by a resumed run
+                return;
+            }
+            PasswordIndex passwordIndex = indexes[users.algorithm(id).ordinal()];
+            if (passwordIndex == null) {
+                return;
+            }
+            // O(1) Lookup: Efficient lookup replaces the nested loop.
+            String crackedPassword = passwordIndex.lookup(users, id);
 
-                if (crackedPassword != null) {
-                    // Use AtomicBoolean compareAndSet for lock-free, thread-safe update
-                    if (user.isCracked().compareAndSet(false, true)) { 
-                        crackedQueue.add(new CrackedCredential(
-                            user.username(), user.hashedPassword(), crackedPassword
-                        ));
-                        passwordsFound.incrementAndGet();
-                    }
+            if (crackedPassword != null) {
+                // Lock-free CAS on the cracked bitset
+                if (users.markCracked(id)) {
+                    results.accept(new CrackedCredential(
+                        users.username(id), users.hashedPassword(id), crackedPassword
+                    ));
+                    passwordsFound.increment();
                 }
-            } finally {
-                // Increment and check if we should report
-                usersChecked.incrementAndGet();
-                reporter.checkAndReport();
             }
-        });
-        
-        // Final report after all tasks complete
-        reporter.reportNow();
+        } finally {
+            // Uncontended striped increment; the reporter samples it in the background
+            usersChecked.increment();
+        }
     }
 }
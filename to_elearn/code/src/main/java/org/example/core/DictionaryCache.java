@@ -0,0 +1,378 @@
+// File: src/main/java/org/example/core/DictionaryCache.java
+package org.example.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+import org.example.io.DigestRunSorter;
+import org.example.io.MappedTextFile;
+import org.example.util.HashAlgorithm;
+import org.example.util.Hasher;
+
+/**
+ * Persistent pre-hashed dictionary: a sorted file of (digest, word offset) records that
+ * later runs memory-map and search instead of re-hashing the wordlist.
+ *
+ * The 128-byte header ties the file to its source dictionary by size, mtime, a sampled
+ * fingerprint and a CRC32C of the whole covered content. On open:
+ * - unchanged dictionary: the records are mapped as they are;
+ * - dictionary grew with the old content intact: only the new tail is hashed, then
+ *   merged with the existing records into a new file;
+ * - dictionary shrank or changed, or the file is corrupt: rebuilt from scratch.
+ * Files are written to a temp name and atomically moved into place. Each file holds the
+ * digests of one HashAlgorithm, recorded in the header.
+ */
+public class DictionaryCache {
+
+    static final long MAGIC = 0x5345333031444958L; // "SE301DIX"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 128;
+
+    private static final int SAMPLE_BLOCKS = 16;
+    private static final int SAMPLE_BYTES = 4096;
+    private static final int RECORDS_PER_REGION = (1 << 30) / DigestRunSorter.RECORD_BYTES;
+
+    private final LongAdder hashesComputed;
+    private final int threads;
+    private final HashAlgorithm algorithm;
+    private String status = "";
+
+    public DictionaryCache(LongAdder hashesComputed, int threads) {
+        this(hashesComputed, threads, HashAlgorithm.SHA256);
+    }
+
+    public DictionaryCache(LongAdder hashesComputed, int threads, HashAlgorithm algorithm) {
+        this.hashesComputed = hashesComputed;
+        this.threads = Math.max(1, threads);
+        this.algorithm = algorithm;
+    }
+
+    // What the last openOrBuild() did, for the console
+    public String status() {
+        return status;
+    }
+
+    public CachedDigestIndex openOrBuild(MappedTextFile dictionary, Path cacheFile)
+            throws IOException, InterruptedException, ExecutionException {
+        long mtime = Files.getLastModifiedTime(dictionary.path()).toMillis();
+        Header header = Files.exists(cacheFile) ? Header.read(cacheFile) : null;
+
+        String rebuildReason;
+        if (header == null) {
+            rebuildReason = Files.exists(cacheFile) ? "cache file is corrupt" : "no cache file";
+        } else if (header.algorithm != algorithm) {
+            rebuildReason = "cache holds " + header.algorithm.label() + " digests";
+        } else if (dictionary.size() < header.sourceSize) {
+            rebuildReason = "dictionary shrank";
+        } else if (sampleFingerprint(dictionary, header.coveredBytes) != header.sampleFingerprint) {
+            rebuildReason = "dictionary content changed";
+        } else if ((mtime != header.sourceMtime || dictionary.size() != header.sourceSize)
+                && contentCrc(dictionary, header.coveredBytes) != header.contentCrc) {
+            rebuildReason = "dictionary content changed";
+        } else if (recordsCrc(cacheFile, header.recordCount) != header.recordsCrc) {
+            rebuildReason = "cache records are corrupt";
+        } else if (dictionary.size() == header.sourceSize) {
+            if (mtime != header.sourceMtime) {
+                // Touched but identical: remember the new mtime so the next run skips the CRC pass
+                header.sourceMtime = mtime;
+                try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.WRITE)) {
+                    header.write(channel);
+                }
+            }
+            status = "Loaded pre-hashed dictionary cache " + cacheFile + " (" + header.recordCount + " digests)";
+            return open(cacheFile, header.recordCount, dictionary);
+        } else {
+            // Appended words: hash only [coveredBytes, size) and merge with what is on disk
+            long added = write(dictionary, header.coveredBytes, cacheFile, header.recordCount, cacheFile, mtime);
+            status = "Extended pre-hashed dictionary cache " + cacheFile + " with "
+                    + (dictionary.size() - header.coveredBytes) + " new bytes (" + added + " digests)";
+            return open(cacheFile, added, dictionary);
+        }
+
+        long records = write(dictionary, 0, null, 0, cacheFile, mtime);
+        status = "Rebuilt pre-hashed dictionary cache " + cacheFile + " (" + rebuildReason + ", "
+                + records + " digests)";
+        return open(cacheFile, records, dictionary);
+    }
+
+    /**
+     * Hashes dictionary[fromOffset, size) in parallel into sorted runs, merges them with the
+     * records of an existing cache (if any) and atomically replaces cacheFile.
+     * @return the number of records in the new file
+     */
+    private long write(MappedTextFile dictionary, long fromOffset, Path existing, long existingRecords,
+            Path cacheFile, long mtime) throws IOException, InterruptedException, ExecutionException {
+        Path dir = cacheFile.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        List<DigestRunSorter> sorters = hashRuns(dictionary, fromOffset, dir, null);
+
+        Path temp = Files.createTempFile(dir, cacheFile.getFileName().toString(), ".tmp");
+        List<FileChannel> opened = new ArrayList<>();
+        long records;
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            List<DigestRunSorter.Source> sources = new ArrayList<>();
+            if (existing != null) {
+                FileChannel old = FileChannel.open(existing, StandardOpenOption.READ);
+                opened.add(old);
+                sources.add(new DigestRunSorter.Source(old, HEADER_BYTES,
+                        HEADER_BYTES + existingRecords * DigestRunSorter.RECORD_BYTES));
+            }
+            for (DigestRunSorter sorter : sorters) {
+                for (Path run : sorter.runs()) {
+                    FileChannel channel = FileChannel.open(run, StandardOpenOption.READ);
+                    opened.add(channel);
+                    sources.add(new DigestRunSorter.Source(channel, 0, channel.size()));
+                }
+            }
+
+            out.position(HEADER_BYTES);
+            CRC32C crc = new CRC32C();
+            records = DigestRunSorter.merge(sources, out, crc);
+
+            Header header = new Header();
+            header.sourceSize = dictionary.size();
+            header.sourceMtime = mtime;
+            header.coveredBytes = dictionary.completeLinesEnd();
+            header.recordCount = records;
+            header.sampleFingerprint = sampleFingerprint(dictionary, header.coveredBytes);
+            header.contentCrc = contentCrc(dictionary, header.coveredBytes);
+            header.recordsCrc = (int) crc.getValue();
+            header.algorithm = algorithm;
+            header.write(out);
+            out.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            for (FileChannel channel : opened) {
+                channel.close();
+            }
+            for (DigestRunSorter sorter : sorters) {
+                sorter.close();
+            }
+        }
+        // Readers only ever see the old file or the complete new one
+        Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return records;
+    }
+
+    /**
+     * Hashes dictionary[fromOffset, size) in parallel into sorted run files of (digest, line
+     * offset) records in dir; the caller merges them and closes the sorters to delete the runs.
+     * @param bytesHashed counts the dictionary bytes done, or null
+     */
+    List<DigestRunSorter> hashRuns(MappedTextFile dictionary, long fromOffset, Path dir, LongAdder bytesHashed)
+            throws InterruptedException, ExecutionException {
+        // Keep sort buffers to about a quarter of the heap across all workers
+        int runRecords = (int) Math.max(1 << 16, Math.min(Integer.MAX_VALUE / 8,
+                Runtime.getRuntime().maxMemory() / 4 / DigestRunSorter.RECORD_BYTES / threads));
+
+        List<MappedTextFile.Chunk> chunks = dictionary.split(fromOffset, threads * 4);
+        try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+            return pool.submit(() -> chunks.parallelStream()
+                    .map(chunk -> hashChunk(dictionary, chunk, dir, runRecords, bytesHashed))
+                    .toList()).get();
+        }
+    }
+
+    private DigestRunSorter hashChunk(MappedTextFile dictionary, MappedTextFile.Chunk chunk, Path dir, int runRecords,
+            LongAdder bytesHashed) {
+        RecordingVisitor visitor = new RecordingVisitor(new DigestRunSorter(dir, runRecords),
+                dictionary.regionStart(chunk.region()), algorithm);
+        dictionary.forEachLine(chunk, visitor);
+        hashesComputed.add(visitor.hashed);
+        if (bytesHashed != null) {
+            bytesHashed.add(chunk.length());
+        }
+        // Spill now so only the chunks in flight hold sort buffers
+        try {
+            visitor.sorter.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return visitor.sorter;
+    }
+
+    // Hashes each line and hands (digest, absolute line offset) to this chunk's sorter
+    private static final class RecordingVisitor implements MappedTextFile.LineVisitor {
+        private final DigestRunSorter sorter;
+        private final long regionStart;
+        private final HashAlgorithm algorithm;
+        private final long[] lanes = new long[DigestIndex.LANES];
+        private byte[] buffer = new byte[256];
+        private long hashed;
+
+        RecordingVisitor(DigestRunSorter sorter, long regionStart, HashAlgorithm algorithm) {
+            this.sorter = sorter;
+            this.regionStart = regionStart;
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public void line(ByteBuffer region, int offset, int length) {
+            if (buffer.length < length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            region.get(offset, buffer, 0, length);
+            Hasher.hash(algorithm, buffer, 0, length, lanes, 0);
+            try {
+                sorter.add(lanes[0], lanes[1], lanes[2], lanes[3], regionStart + offset);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            hashed++;
+        }
+    }
+
+    private CachedDigestIndex open(Path cacheFile, long records, MappedTextFile dictionary) throws IOException {
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            int regionCount = (int) ((records + RECORDS_PER_REGION - 1) / RECORDS_PER_REGION);
+            ByteBuffer[] regions = new ByteBuffer[regionCount];
+            for (int r = 0; r < regionCount; r++) {
+                long first = (long) r * RECORDS_PER_REGION;
+                long length = Math.min(RECORDS_PER_REGION, records - first) * DigestRunSorter.RECORD_BYTES;
+                regions[r] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_BYTES + first * DigestRunSorter.RECORD_BYTES, length);
+            }
+            return new CachedDigestIndex(regions, RECORDS_PER_REGION, records, dictionary, algorithm);
+        }
+    }
+
+    // SHA-256 over the covered length plus 4 KB samples spread across [0, covered)
+    static long sampleFingerprint(MappedTextFile dictionary, long covered) {
+        byte[] block = new byte[SAMPLE_BYTES + 8];
+        ByteBuffer.wrap(block).putLong(covered);
+        long[] lanes = new long[DigestIndex.LANES];
+        long fingerprint = 0;
+        for (int i = 0; i <= SAMPLE_BLOCKS; i++) {
+            long start = Math.max(0, Math.min(covered - SAMPLE_BYTES, covered * i / SAMPLE_BLOCKS));
+            int length = (int) Math.min(SAMPLE_BYTES, covered - start);
+            int copied = copy(dictionary, start, block, 8, length);
+            Hasher.sha256(block, 0, 8 + copied, lanes);
+            fingerprint = fingerprint * 31 + lanes[0];
+        }
+        return fingerprint;
+    }
+
+    // CRC32C of the whole covered content; only computed when size or mtime moved
+    static int contentCrc(MappedTextFile dictionary, long covered) {
+        CRC32C crc = new CRC32C();
+        for (int r = 0; r < dictionary.regionCount() && dictionary.regionStart(r) < covered; r++) {
+            ByteBuffer region = dictionary.region(r);
+            int length = (int) Math.min(region.limit(), covered - dictionary.regionStart(r));
+            crc.update(region.slice(0, length));
+        }
+        return (int) crc.getValue();
+    }
+
+    private static int recordsCrc(Path cacheFile, long records) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            long end = HEADER_BYTES + records * DigestRunSorter.RECORD_BYTES;
+            for (long position = HEADER_BYTES; position < end; position += 1 << 30) {
+                long length = Math.min(1 << 30, end - position);
+                crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    private static int copy(MappedTextFile file, long start, byte[] target, int offset, int length) {
+        int copied = 0;
+        while (copied < length) {
+            long position = start + copied;
+            int r = file.regionOf(position);
+            ByteBuffer region = file.region(r);
+            int from = (int) (position - file.regionStart(r));
+            int n = Math.min(length - copied, region.limit() - from);
+            region.get(from, target, offset + copied, n);
+            copied += n;
+        }
+        return copied;
+    }
+
+    // Fixed-layout, big-endian file header
+    static final class Header {
+        long sourceSize;
+        long sourceMtime;
+        long coveredBytes;
+        long recordCount;
+        long sampleFingerprint;
+        int contentCrc;
+        int recordsCrc;
+        // Stored as ordinal + 1; 0 in files written before other algorithms, which are SHA-256
+        HashAlgorithm algorithm;
+
+        // Null if the header is missing, truncated, from another version or fails its checksum
+        static Header read(Path cacheFile) throws IOException {
+            try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES);
+                while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                    // keep reading
+                }
+                if (buffer.hasRemaining()) {
+                    return null;
+                }
+                buffer.flip();
+                CRC32C crc = new CRC32C();
+                crc.update(buffer.array(), 0, HEADER_BYTES - 4);
+                if (buffer.getLong(0) != MAGIC || buffer.getInt(8) != VERSION
+                        || buffer.getInt(12) != DigestRunSorter.RECORD_BYTES
+                        || buffer.getInt(HEADER_BYTES - 4) != (int) crc.getValue()) {
+                    return null;
+                }
+                Header header = new Header();
+                header.sourceSize = buffer.getLong(16);
+                header.sourceMtime = buffer.getLong(24);
+                header.coveredBytes = buffer.getLong(32);
+                header.recordCount = buffer.getLong(40);
+                header.sampleFingerprint = buffer.getLong(48);
+                header.contentCrc = buffer.getInt(56);
+                header.recordsCrc = buffer.getInt(60);
+                int algorithmCode = buffer.getInt(64);
+                if (algorithmCode < 0 || algorithmCode > HashAlgorithm.values().length) {
+                    return null;
+                }
+                header.algorithm = algorithmCode == 0
+                        ? HashAlgorithm.SHA256 : HashAlgorithm.ofOrdinal(algorithmCode - 1);
+                long expectedLength = HEADER_BYTES + header.recordCount * DigestRunSorter.RECORD_BYTES;
+                if (header.recordCount < 0 || header.coveredBytes > header.sourceSize
+                        || channel.size() != expectedLength) {
+                    return null;
+                }
+                return header;
+            }
+        }
+
+        void write(FileChannel channel) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES);
+            buffer.putLong(0, MAGIC);
+            buffer.putInt(8, VERSION);
+            buffer.putInt(12, DigestRunSorter.RECORD_BYTES);
+            buffer.putLong(16, sourceSize);
+            buffer.putLong(24, sourceMtime);
+            buffer.putLong(32, coveredBytes);
+            buffer.putLong(40, recordCount);
+            buffer.putLong(48, sampleFingerprint);
+            buffer.putInt(56, contentCrc);
+            buffer.putInt(60, recordsCrc);
+            buffer.putInt(64, algorithm.ordinal() + 1);
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.array(), 0, HEADER_BYTES - 4);
+            buffer.putInt(HEADER_BYTES - 4, (int) crc.getValue());
+            channel.write(buffer, 0);
+        }
+    }
+}
@@ -1,20 +1,40 @@
 // File: src/main/java/org/example/core/DictionaryProcessor.java
 package org.example.core;
 
+import org.example.io.MappedTextFile;
+import org.example.util.BatchHasher;
+import org.example.util.HashAlgorithm;
 import org.example.util.Hasher;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
 
 public class DictionaryProcessor {
 
     private final LongAdder hashesComputed;
+    private final BatchHasher hasher;
 
     public DictionaryProcessor(LongAdder hashesComputed) {
+        this(hashesComputed, BatchHasher.SCALAR);
+    }
+
+    // hasher computes the digests of the binary index builds of its algorithm, BatchHasher.BATCH
+    // words per call; other algorithms use the scalar engine
+    public DictionaryProcessor(LongAdder hashesComputed, BatchHasher hasher) {
         this.hashesComputed = hashesComputed;
+        this.hasher = hasher;
+    }
+
+    public String hasherName() {
+        return hasher.name();
     }
 
     public List<String> loadDictionary(String filePath) throws IOException {
@@ -22,10 +42,20 @@ public class DictionaryProcessor {
         return Files.readAllLines(Paths.get(filePath));
     }
 
+    // Zero-copy alternative to loadDictionary: the file is mapped, not read into a List
+    public MappedTextFile mapDictionary(String filePath) throws IOException {
+        return MappedTextFile.map(Paths.get(filePath));
+    }
+
     // Handles the fixed O(D) complexity pre-hashing (The algorithmic fix [cite: 42, 43])
     // Using sequential processing to avoid thread contention on ConcurrentHashMap writes
     public ConcurrentHashMap<String, String> preHashDictionary(
             List<String> dictionaryWords) {
+        return preHashDictionary(dictionaryWords, HashAlgorithm.SHA256);
+    }
+
+    public ConcurrentHashMap<String, String> preHashDictionary(
+            List<String> dictionaryWords, HashAlgorithm algorithm) {
 
         // Pre-size the map to avoid resizing overhead
         ConcurrentHashMap<String, String> preHashedDictionary = 
@@ -36,7 +66,7 @@ public class DictionaryProcessor {
         // Sequential processing is faster for write-heavy operations
         // Avoids ConcurrentHashMap contention and cache line bouncing
         for (String word : dictionaryWords) {
-            String hash = Hasher.sha256(word);
+            String hash = Hasher.hex(algorithm, word);
             // Hash -> Plaintext mapping
             preHashedDictionary.putIfAbsent(hash, word);
             // Use the shared counter
@@ -45,4 +75,253 @@ public class DictionaryProcessor {
 
         return preHashedDictionary;
     }
-}
\ No newline at end of file
+
+    // Binary variant of preHashDictionary: raw digests in a primitive open-addressing index,
+    // no hex Strings and no per-entry objects. The String map above stays as the reference mode.
+    // Words are hashed straight from (offset, length) slices of the mapped file.
+    public DigestIndex buildDigestIndex(MappedTextFile dictionary) {
+        return buildDigestIndex(dictionary, HashAlgorithm.SHA256);
+    }
+
+    public DigestIndex buildDigestIndex(MappedTextFile dictionary, HashAlgorithm algorithm) {
+        // ~10 bytes per word on typical wordlists; the index grows if the guess is low
+        int expectedWords = (int) Math.min(DigestIndex.MAX_ENTRIES, dictionary.size() / 10 + 1);
+        int expectedArena = (int) Math.min(Integer.MAX_VALUE - 8, dictionary.size() + expectedWords);
+        DigestIndex index = new DigestIndex(expectedWords, expectedArena);
+
+        IndexingVisitor visitor = new IndexingVisitor(index, hasherFor(algorithm));
+        dictionary.forEachLine(visitor);
+        visitor.flush();
+        hashesComputed.add(visitor.hashed);
+
+        return index;
+    }
+
+    /**
+     * Parallel pre-hashing in two lock-free passes on a ForkJoinPool of the given size:
+     * 1. the mapped file is split into line-aligned byte chunks and each worker hashes
+     *    its chunk into a private HashedChunk, bucketed by destination shard;
+     * 2. each shard is then built by one worker from its buckets, taken in chunk order
+     *    so the first occurrence of a duplicate word still wins.
+     * With one thread this falls back to the sequential single-index build.
+     */
+    public PasswordIndex buildDigestIndex(MappedTextFile dictionary, int threads)
+            throws InterruptedException, ExecutionException {
+        return buildDigestIndex(dictionary, threads, HashAlgorithm.SHA256);
+    }
+
+    public PasswordIndex buildDigestIndex(MappedTextFile dictionary, int threads, HashAlgorithm algorithm)
+            throws InterruptedException, ExecutionException {
+        if (threads <= 1) {
+            return buildDigestIndex(dictionary, algorithm);
+        }
+        BatchHasher chunkHasher = hasherFor(algorithm);
+        // Several chunks and shards per thread so uneven work still balances
+        List<MappedTextFile.Chunk> chunks = dictionary.split(threads * 4);
+        int shardCount = Integer.highestOneBit(threads * 2 - 1) << 1;
+
+        try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+            List<HashedChunk> hashed = pool.submit(() -> chunks.parallelStream()
+                    .map(chunk -> hashChunk(dictionary, chunk, shardCount, chunkHasher))
+                    .toList()).get();
+
+            DigestIndex[] shards = pool.submit(() -> IntStream.range(0, shardCount).parallel()
+                    .mapToObj(shard -> buildShard(dictionary, hashed, shard))
+                    .toArray(DigestIndex[]::new)).get();
+
+            return new ShardedDigestIndex(shards);
+        }
+    }
+
+    private BatchHasher hasherFor(HashAlgorithm algorithm) {
+        return hasher.algorithm() == algorithm ? hasher : BatchHasher.scalar(algorithm);
+    }
+
+    private HashedChunk hashChunk(MappedTextFile dictionary, MappedTextFile.Chunk chunk, int shardCount,
+            BatchHasher chunkHasher) {
+        HashedChunk hashed = new HashedChunk(chunk, shardCount, chunkHasher);
+        dictionary.forEachLine(chunk, hashed);
+        hashed.flush();
+        hashesComputed.add(hashed.hashed);
+        return hashed;
+    }
+
+    private static DigestIndex buildShard(MappedTextFile dictionary, List<HashedChunk> hashed, int shard) {
+        int entries = 0;
+        long arenaBytes = 0;
+        for (HashedChunk chunk : hashed) {
+            entries += chunk.counts[shard];
+            for (int i = 0; i < chunk.counts[shard]; i++) {
+                arenaBytes += (int) chunk.slices[shard][i] + 1;
+            }
+        }
+        DigestIndex index = new DigestIndex(entries, (int) Math.min(Integer.MAX_VALUE - 8, arenaBytes));
+
+        byte[] buffer = new byte[256];
+        for (HashedChunk chunk : hashed) {
+            ByteBuffer region = dictionary.region(chunk.chunk.region());
+            long[] lanes = chunk.lanes[shard];
+            long[] slices = chunk.slices[shard];
+            for (int i = 0; i < chunk.counts[shard]; i++) {
+                int offset = (int) (slices[i] >>> 32);
+                int length = (int) slices[i];
+                if (buffer.length < length) {
+                    buffer = new byte[Math.max(length, buffer.length * 2)];
+                }
+                region.get(offset, buffer, 0, length);
+                int base = i * DigestIndex.LANES;
+                index.putIfAbsent(lanes[base], lanes[base + 1], lanes[base + 2], lanes[base + 3],
+                        buffer, 0, length);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Compact variant of the parallel build for a deduplicated dictionary (WordDeduplicator):
+     * each distinct word is hashed once, decoded straight from the front-coded store, and the
+     * index keeps word ids instead of plaintext. Same two passes: id ranges hashed into
+     * per-shard buckets, then one worker per shard.
+     */
+    public WordIdIndex buildWordIndex(WordStore store, int threads, HashAlgorithm algorithm)
+            throws InterruptedException, ExecutionException {
+        BatchHasher wordHasher = hasherFor(algorithm);
+        if (threads <= 1) {
+            WordIdIndex.Table table = new WordIdIndex.Table(store.size());
+            WordTableVisitor visitor = new WordTableVisitor(table, wordHasher);
+            hashWords(store, 0, store.size(), visitor);
+            hashesComputed.add(visitor.hashed);
+            return new WordIdIndex(store, new WordIdIndex.Table[] {table});
+        }
+        int shardCount = Integer.highestOneBit(threads * 2 - 1) << 1;
+        // Ranges start on block boundaries so each is decoded from its own first block
+        int blocks = (store.size() + WordStore.BLOCK - 1) / WordStore.BLOCK;
+        int rangeBlocks = Math.max(1, (blocks + threads * 4 - 1) / (threads * 4));
+        int rangeCount = (blocks + rangeBlocks - 1) / rangeBlocks;
+
+        try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+            List<HashedWords> hashed = pool.submit(() -> IntStream.range(0, rangeCount).parallel()
+                    .mapToObj(range -> {
+                        int from = range * rangeBlocks * WordStore.BLOCK;
+                        int to = (int) Math.min(store.size(), (long) (range + 1) * rangeBlocks * WordStore.BLOCK);
+                        HashedWords words = new HashedWords(from, to - from, shardCount, wordHasher);
+                        hashWords(store, from, to, words);
+                        hashesComputed.add(words.hashed);
+                        return words;
+                    })
+                    .toList()).get();
+
+            WordIdIndex.Table[] shards = pool.submit(() -> IntStream.range(0, shardCount).parallel()
+                    .mapToObj(shard -> {
+                        int entries = 0;
+                        for (HashedWords words : hashed) {
+                            entries += words.counts[shard];
+                        }
+                        WordIdIndex.Table table = new WordIdIndex.Table(entries);
+                        for (HashedWords words : hashed) {
+                            long[] lanes = words.lanes[shard];
+                            int[] ids = words.ids[shard];
+                            for (int i = 0; i < words.counts[shard]; i++) {
+                                int base = i * DigestIndex.LANES;
+                                table.putIfAbsent(lanes[base], lanes[base + 1], lanes[base + 2], lanes[base + 3],
+                                        ids[i]);
+                            }
+                            // Only this shard's builder reads these buckets; free them as tables fill
+                            words.lanes[shard] = null;
+                            words.ids[shard] = null;
+                        }
+                        return table;
+                    })
+                    .toArray(WordIdIndex.Table[]::new)).get();
+
+            return new WordIdIndex(store, shards);
+        }
+    }
+
+    // Feeds the words with ids in [from, to) through a batching visitor, in id order
+    private static void hashWords(WordStore store, int from, int to, WordIdVisitor visitor) {
+        ByteBuffer[] wrapped = {ByteBuffer.allocate(0)};
+        store.forEach(from, to, (id, word, length) -> {
+            if (wrapped[0].array() != word) {
+                // The store's decode buffer only changes when it grows
+                wrapped[0] = ByteBuffer.wrap(word);
+            }
+            visitor.line(wrapped[0], 0, length);
+        });
+        visitor.flush();
+    }
+
+    // Batching visitor over store words: digests come back in id order, so ids are counted, not carried
+    private abstract static class WordIdVisitor extends BatchingLineVisitor {
+        int nextId;
+
+        WordIdVisitor(int firstId, BatchHasher hasher) {
+            super(hasher);
+            this.nextId = firstId;
+        }
+    }
+
+    private static final class WordTableVisitor extends WordIdVisitor {
+        private final WordIdIndex.Table table;
+
+        WordTableVisitor(WordIdIndex.Table table, BatchHasher hasher) {
+            super(0, hasher);
+            this.table = table;
+        }
+
+        @Override
+        void hashed(long[] lanes, int base, byte[] word, int wordOffset, int length, int regionOffset) {
+            table.putIfAbsent(lanes[base], lanes[base + 1], lanes[base + 2], lanes[base + 3], nextId++);
+        }
+    }
+
+    // Thread-private digests and word ids of one id range, bucketed by shard like HashedChunk
+    private static final class HashedWords extends WordIdVisitor {
+        final long[][] lanes;
+        final int[][] ids;
+        final int[] counts;
+        private final int shift;
+
+        HashedWords(int firstId, int words, int shardCount, BatchHasher hasher) {
+            super(firstId, hasher);
+            this.shift = ShardedDigestIndex.shiftFor(shardCount);
+            this.lanes = new long[shardCount][];
+            this.ids = new int[shardCount][];
+            this.counts = new int[shardCount];
+            int initial = Math.max(16, words / shardCount + words / shardCount / 8);
+            for (int s = 0; s < shardCount; s++) {
+                lanes[s] = new long[initial * DigestIndex.LANES];
+                ids[s] = new int[initial];
+            }
+        }
+
+        @Override
+        void hashed(long[] digest, int base, byte[] word, int wordOffset, int length, int regionOffset) {
+            int shard = ShardedDigestIndex.shardOf(digest[base], shift, counts.length);
+            int n = counts[shard];
+            if (n == ids[shard].length) {
+                ids[shard] = Arrays.copyOf(ids[shard], n * 2);
+                lanes[shard] = Arrays.copyOf(lanes[shard], n * 2 * DigestIndex.LANES);
+            }
+            System.arraycopy(digest, base, lanes[shard], n * DigestIndex.LANES, DigestIndex.LANES);
+            ids[shard][n] = nextId++;
+            counts[shard] = n + 1;
+        }
+    }
+
+    // Inserts each batch-hashed line, in file order so the first duplicate wins
+    private static final class IndexingVisitor extends BatchingLineVisitor {
+        private final DigestIndex index;
+
+        IndexingVisitor(DigestIndex index, BatchHasher hasher) {
+            super(hasher);
+            this.index = index;
+        }
+
+        @Override
+        void hashed(long[] lanes, int base, byte[] word, int wordOffset, int length, int regionOffset) {
+            index.putIfAbsent(lanes[base], lanes[base + 1], lanes[base + 2], lanes[base + 3],
+                    word, wordOffset, length);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+// File: src/main/java/org/example/core/DigestIndex.java
+package org.example.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.example.model.UserStore;
+
+/**
+ * Open-addressing hash index from raw SHA-256 digests to plaintext words.
+ * Digests are kept as four big-endian long lanes in one flat long[] and the
+ * slot is chosen from the first 8 digest bytes (lane 0). Plaintexts are packed
+ * into a single byte arena as [varint length][UTF-8 bytes], so each entry costs
+ * 36 bytes of table plus the word itself instead of a pair of Strings.
+ *
+ * Lookups never allocate; a String is decoded from the arena only on a hit.
+ * Writes are single-threaded, reads are safe once building has finished.
+ */
+public class DigestIndex implements PasswordIndex {
+
+    public static final int LANES = 4;
+    public static final int NOT_FOUND = -1;
+
+    static final double LOAD_FACTOR = 0.6;
+    // Largest slot count: a power of two whose LANES longs per slot still fit in one long[]
+    static final int MAX_CAPACITY = Integer.highestOneBit((Integer.MAX_VALUE - 8) / LANES);
+    // Most entries one table holds; more need more shards
+    public static final int MAX_ENTRIES = (int) (MAX_CAPACITY * LOAD_FACTOR);
+
+    private long[] keys;    // LANES longs per slot
+    private int[] refs;     // arena offset + 1, 0 marks an empty slot
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    private byte[] arena;
+    private int arenaSize;
+
+    public DigestIndex(int expectedEntries) {
+        this(expectedEntries, Math.max(16, expectedEntries * 12));
+    }
+
+    public DigestIndex(int expectedEntries, int expectedArenaBytes) {
+        allocateTable(tableSizeFor(expectedEntries));
+        this.arena = new byte[Math.max(16, expectedArenaBytes)];
+    }
+
+    /**
+     * Inserts digest -> word unless the digest is already present (first word wins,
+     * same as putIfAbsent on the String map).
+     * @return true if the entry was added
+     */
+    public boolean putIfAbsent(long l0, long l1, long l2, long l3, byte[] word, int offset, int length) {
+        int slot = (int) l0 & mask;
+        while (refs[slot] != 0) {
+            if (matches(slot, l0, l1, l2, l3)) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        int ref = appendToArena(word, offset, length);
+        int base = slot * LANES;
+        keys[base] = l0;
+        keys[base + 1] = l1;
+        keys[base + 2] = l2;
+        keys[base + 3] = l3;
+        refs[slot] = ref + 1;
+        if (++size > resizeThreshold) {
+            rehash();
+        }
+        return true;
+    }
+
+    /**
+     * @return the arena reference of the plaintext for this digest, or NOT_FOUND
+     */
+    public int find(long l0, long l1, long l2, long l3) {
+        int slot = (int) l0 & mask;
+        int ref;
+        while ((ref = refs[slot]) != 0) {
+            if (matches(slot, l0, l1, l2, l3)) {
+                return ref - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    public int find(long[] lanes) {
+        return find(lanes[0], lanes[1], lanes[2], lanes[3]);
+    }
+
+    // Decodes the plaintext stored at an arena reference returned by find()
+    public String plaintext(int ref) {
+        int pos = ref;
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = arena[pos++];
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return new String(arena, pos, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String lookup(UserStore users, int id) {
+        if (!users.hasDigest(id)) {
+            return null;
+        }
+        long l0 = users.lane(id, 0);
+        long l1 = users.lane(id, 1);
+        long l2 = users.lane(id, 2);
+        long l3 = users.lane(id, 3);
+        int ref = find(l0, l1, l2, l3);
+        return ref == NOT_FOUND ? null : plaintext(ref);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    public long arenaBytes() {
+        return arenaSize;
+    }
+
+    private boolean matches(int slot, long l0, long l1, long l2, long l3) {
+        int base = slot * LANES;
+        return keys[base] == l0 && keys[base + 1] == l1
+                && keys[base + 2] == l2 && keys[base + 3] == l3;
+    }
+
+    private int appendToArena(byte[] word, int offset, int length) {
+        int needed = arenaSize + 5 + length;
+        if (needed > arena.length) {
+            long grown = Math.max((long) arena.length * 2, needed);
+            if (needed < 0 || grown > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Plaintext arena exceeds 2 GB");
+            }
+            arena = Arrays.copyOf(arena, (int) grown);
+        }
+        int ref = arenaSize;
+        int v = length;
+        while ((v & ~0x7F) != 0) {
+            arena[arenaSize++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        arena[arenaSize++] = (byte) v;
+        System.arraycopy(word, offset, arena, arenaSize, length);
+        arenaSize += length;
+        return ref;
+    }
+
+    private void allocateTable(int capacity) {
+        keys = new long[capacity * LANES];
+        refs = new int[capacity];
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void rehash() {
+        long[] oldKeys = keys;
+        int[] oldRefs = refs;
+        allocateTable(grownCapacity(refs.length));
+        for (int i = 0; i < oldRefs.length; i++) {
+            if (oldRefs[i] == 0) {
+                continue;
+            }
+            int base = i * LANES;
+            int slot = (int) oldKeys[base] & mask;
+            while (refs[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            System.arraycopy(oldKeys, base, keys, slot * LANES, LANES);
+            refs[slot] = oldRefs[i];
+        }
+    }
+
+    // Power-of-two slot count for expectedEntries at LOAD_FACTOR; also sizes WordIdIndex tables
+    static int tableSizeFor(int expectedEntries) {
+        if (expectedEntries > MAX_ENTRIES) {
+            throw new IllegalArgumentException("A digest table holds at most " + MAX_ENTRIES
+                    + " entries, " + expectedEntries + " requested; use more threads for more, smaller shards");
+        }
+        int needed = (int) Math.ceil(Math.max(expectedEntries, 1) / LOAD_FACTOR);
+        return Math.min(MAX_CAPACITY, Math.max(16, Integer.highestOneBit(Math.max(needed - 1, 1)) << 1));
+    }
+
+    // Slot count after a rehash; a table at MAX_CAPACITY cannot grow
+    static int grownCapacity(int capacity) {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException("Digest table is full at " + MAX_ENTRIES
+                    + " entries; use more threads for more, smaller shards");
+        }
+        return capacity * 2;
+    }
+}
@@ -0,0 +1,149 @@
+// File: src/main/java/org/example/core/ExecutionBackend.java
+package org.example.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import org.example.report.LatencyHistogram;
+
+/**
+ * Where a run's stages execute.
+ * FORKJOIN is the original layout: platform threads for the output writer and checkpoint
+ * flusher, the batch lookups as a parallel stream on the caller's ForkJoinPool and the
+ * streaming workers on a ForkJoinPool of their own.
+ * VIRTUAL runs the blocking I/O stages (output writer, checkpoint flusher) on virtual
+ * threads and the CPU-bound lookups and streaming workers on a fixed pool of platform
+ * threads, one per configured thread, so hashing never competes with more runnable
+ * threads than cores.
+ * Both record the latency of every attack task (a block of users, a dictionary batch)
+ * so the two can be compared.
+ */
+public final class ExecutionBackend implements AutoCloseable {
+
+    public enum Kind { FORKJOIN, VIRTUAL }
+
+    private final Kind kind;
+    private final int threads;
+    private final ExecutorService hashing;   // bounded platform pool; null for FORKJOIN
+    private ForkJoinPool workers;            // FORKJOIN streaming workers, created on first use
+    private final LatencyHistogram taskLatency = new LatencyHistogram();
+
+    public ExecutionBackend(Kind kind, int threads) {
+        this.kind = kind;
+        this.threads = threads;
+        if (kind == Kind.VIRTUAL) {
+            this.hashing = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name("hash-", 0).daemon().factory());
+        } else {
+            this.hashing = null;
+        }
+    }
+
+    public Kind kind() {
+        return kind;
+    }
+
+    // Thread factory for a long-lived I/O stage (writer, flusher); its threads never keep the JVM alive
+    public ThreadFactory ioThreads(String name) {
+        return kind == Kind.VIRTUAL
+                ? Thread.ofVirtual().name(name).factory()
+                : Thread.ofPlatform().name(name).daemon().factory();
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    // Per-task durations of the attack (a block of users, or a dictionary batch in streaming mode)
+    public LatencyHistogram taskLatency() {
+        return taskLatency;
+    }
+
+    /**
+     * Runs task(0) .. task(tasks - 1) and returns when all are done, timing each one.
+     * FORKJOIN runs them as a parallel stream, i.e. in the caller's ForkJoinPool; VIRTUAL
+     * submits them to the bounded hashing pool. The first task failure is rethrown and
+     * the tasks not started yet are cancelled.
+     */
+    public void forEachTask(int tasks, IntConsumer task) {
+        if (kind == Kind.FORKJOIN) {
+            IntStream.range(0, tasks).parallel().forEach(t -> timed(task, t));
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(tasks);
+        for (int t = 0; t < tasks; t++) {
+            int index = t;
+            futures.add(hashing.submit(() -> timed(task, index)));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for attack tasks");
+        }
+    }
+
+    /**
+     * Starts count long-running workers that the caller feeds itself (the streaming consumers)
+     * and returns at once. FORKJOIN runs them on a ForkJoinPool of threads() kept until
+     * close(), VIRTUAL on the bounded hashing pool; workers beyond threads() wait for a free
+     * thread. The workers time their own tasks into taskLatency().
+     */
+    public synchronized List<Future<?>> startWorkers(int count, Callable<?> worker) {
+        ExecutorService pool = hashing;
+        if (kind == Kind.FORKJOIN) {
+            if (workers == null) {
+                workers = new ForkJoinPool(threads);
+            }
+            pool = workers;
+        }
+        List<Future<?>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            futures.add(pool.submit(worker));
+        }
+        return futures;
+    }
+
+    // Stops the hashing pool and the streaming workers' pool
+    @Override
+    public synchronized void close() {
+        ExecutorService pool = kind == Kind.FORKJOIN ? workers : hashing;
+        if (pool == null) {
+            return;
+        }
+        pool.shutdown();
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void timed(IntConsumer task, int index) {
+        long start = System.nanoTime();
+        task.accept(index);
+        taskLatency.record(System.nanoTime() - start);
+    }
+}
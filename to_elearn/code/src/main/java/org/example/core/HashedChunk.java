@@ -0,0 +1,50 @@
+// File: src/main/java/org/example/core/HashedChunk.java
+package org.example.core;
+
+import java.util.Arrays;
+
+import org.example.io.MappedTextFile;
+import org.example.util.BatchHasher;
+
+/**
+ * Thread-private output of hashing one dictionary chunk: digests bucketed by the
+ * shard they belong to, each with the (offset, length) of its word in the mapped region.
+ * Only the worker that owns the chunk writes it; shard builders read it afterwards.
+ */
+final class HashedChunk extends BatchingLineVisitor {
+
+    final MappedTextFile.Chunk chunk;
+    final long[][] lanes;    // per shard: LANES longs per record
+    final long[][] slices;   // per shard: offset << 32 | length
+    final int[] counts;      // per shard: number of records
+
+    private final int shift;
+
+    HashedChunk(MappedTextFile.Chunk chunk, int shardCount, BatchHasher hasher) {
+        super(hasher);
+        this.chunk = chunk;
+        this.shift = ShardedDigestIndex.shiftFor(shardCount);
+        this.lanes = new long[shardCount][];
+        this.slices = new long[shardCount][];
+        this.counts = new int[shardCount];
+        // ~10 bytes per word, spread evenly over the shards
+        int initial = (int) Math.max(16, chunk.length() / 10 / shardCount);
+        for (int s = 0; s < shardCount; s++) {
+            lanes[s] = new long[initial * DigestIndex.LANES];
+            slices[s] = new long[initial];
+        }
+    }
+
+    @Override
+    void hashed(long[] digest, int base, byte[] word, int wordOffset, int length, int offset) {
+        int shard = ShardedDigestIndex.shardOf(digest[base], shift, counts.length);
+        int n = counts[shard];
+        if (n == slices[shard].length) {
+            slices[shard] = Arrays.copyOf(slices[shard], n * 2);
+            lanes[shard] = Arrays.copyOf(lanes[shard], n * 2 * DigestIndex.LANES);
+        }
+        System.arraycopy(digest, base, lanes[shard], n * DigestIndex.LANES, DigestIndex.LANES);
+        slices[shard][n] = (long) offset << 32 | length;
+        counts[shard] = n + 1;
+    }
+}
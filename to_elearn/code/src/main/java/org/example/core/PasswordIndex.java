@@ -0,0 +1,10 @@
+// File: src/main/java/org/example/core/PasswordIndex.java
+package org.example.core;
+
+import org.example.model.UserStore;
+
+// Lookup side of a pre-hashed dictionary: returns the plaintext for a user's hash, or null
+@FunctionalInterface
+public interface PasswordIndex {
+    String lookup(UserStore users, int id);
+}
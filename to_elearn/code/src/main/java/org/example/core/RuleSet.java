@@ -0,0 +1,231 @@
+// File: src/main/java/org/example/core/RuleSet.java
+package org.example.core;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Word-mangling rules in the usual rule-file syntax (a subset of hashcat's), one rule per
+ * line, each a sequence of functions applied left to right:
+ *   :  nothing          l  lowercase      u  uppercase       c  capitalize   C  invert capitalize
+ *   t  toggle case      TN toggle at N    r  reverse         d  duplicate
+ *   $X append X         ^X prepend X      [  delete first    ]  delete last  DN delete at N
+ *   sXY replace X by Y  @X purge X
+ * Positions N are 0-9 then A-Z (10-35). Blank lines and lines starting with '#' are skipped;
+ * spaces between functions are ignored. Case functions only touch ASCII letters.
+ * Rules are compiled once into byte programs and applied in place into a caller-owned
+ * buffer, so generating a candidate allocates nothing. Immutable and thread-safe.
+ */
+public final class RuleSet {
+
+    // Longest candidate a rule may produce; longer results are rejected
+    public static final int MAX_LENGTH = 256;
+
+    // The word as written; what the streaming attack uses without a rules file
+    public static final RuleSet IDENTITY = new RuleSet(new byte[][] {new byte[0]}, new String[] {":"});
+
+    private final byte[][] programs;   // per rule: opcode, then its argument bytes, repeated
+    private final String[] texts;
+
+    private RuleSet(byte[][] programs, String[] texts) {
+        this.programs = programs;
+        this.texts = texts;
+    }
+
+    /**
+     * Reads and compiles a rules file. Bytes are taken as ISO-8859-1, so $X and sXY work on
+     * any single byte.
+     * @throws IllegalArgumentException naming the file and line of the first invalid rule
+     */
+    public static RuleSet load(Path path) throws IOException {
+        String[] lines = new String(Files.readAllBytes(path), StandardCharsets.ISO_8859_1).split("\n");
+        List<byte[]> programs = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].endsWith("\r") ? lines[i].substring(0, lines[i].length() - 1) : lines[i];
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            programs.add(compile(line, path + ":" + (i + 1)));
+            texts.add(line);
+        }
+        if (programs.isEmpty()) {
+            throw new IllegalArgumentException("No rules in " + path);
+        }
+        return new RuleSet(programs.toArray(byte[][]::new), texts.toArray(String[]::new));
+    }
+
+    public int size() {
+        return programs.length;
+    }
+
+    // The rule as written in the file
+    public String text(int rule) {
+        return texts[rule];
+    }
+
+    // True if the rule leaves every word unchanged, so the word can be hashed without a copy
+    public boolean isIdentity(int rule) {
+        return programs[rule].length == 0;
+    }
+
+    /**
+     * Applies a rule to word[0, length) and writes the candidate to out[0, result).
+     * @param out at least MAX_LENGTH bytes
+     * @return the candidate's length, or -1 if the word or the candidate is longer than MAX_LENGTH
+     */
+    public int apply(int rule, byte[] word, int length, byte[] out) {
+        if (length > MAX_LENGTH) {
+            return -1;
+        }
+        System.arraycopy(word, 0, out, 0, length);
+        byte[] program = programs[rule];
+        int n = length;
+        for (int pc = 0; pc < program.length; ) {
+            byte op = program[pc++];
+            switch (op) {
+                case 'l' -> {
+                    for (int i = 0; i < n; i++) {
+                        out[i] = lower(out[i]);
+                    }
+                }
+                case 'u' -> {
+                    for (int i = 0; i < n; i++) {
+                        out[i] = upper(out[i]);
+                    }
+                }
+                case 'c', 'C' -> {
+                    for (int i = 0; i < n; i++) {
+                        boolean up = (i == 0) == (op == 'c');
+                        out[i] = up ? upper(out[i]) : lower(out[i]);
+                    }
+                }
+                case 't' -> {
+                    for (int i = 0; i < n; i++) {
+                        out[i] = toggle(out[i]);
+                    }
+                }
+                case 'T' -> {
+                    int at = program[pc++];
+                    if (at < n) {
+                        out[at] = toggle(out[at]);
+                    }
+                }
+                case 'r' -> {
+                    for (int i = 0, j = n - 1; i < j; i++, j--) {
+                        byte b = out[i];
+                        out[i] = out[j];
+                        out[j] = b;
+                    }
+                }
+                case 'd' -> {
+                    if (2 * n > MAX_LENGTH) {
+                        return -1;
+                    }
+                    System.arraycopy(out, 0, out, n, n);
+                    n *= 2;
+                }
+                case '$' -> {
+                    if (n == MAX_LENGTH) {
+                        return -1;
+                    }
+                    out[n++] = program[pc++];
+                }
+                case '^' -> {
+                    if (n == MAX_LENGTH) {
+                        return -1;
+                    }
+                    System.arraycopy(out, 0, out, 1, n++);
+                    out[0] = program[pc++];
+                }
+                case '[' -> n = delete(out, n, 0);
+                case ']' -> n = Math.max(0, n - 1);
+                case 'D' -> n = delete(out, n, program[pc++]);
+                case 's' -> {
+                    byte from = program[pc++];
+                    byte to = program[pc++];
+                    for (int i = 0; i < n; i++) {
+                        if (out[i] == from) {
+                            out[i] = to;
+                        }
+                    }
+                }
+                case '@' -> {
+                    byte purge = program[pc++];
+                    int kept = 0;
+                    for (int i = 0; i < n; i++) {
+                        if (out[i] != purge) {
+                            out[kept++] = out[i];
+                        }
+                    }
+                    n = kept;
+                }
+                default -> throw new IllegalStateException("Corrupt rule program: " + texts[rule]);
+            }
+        }
+        return n;
+    }
+
+    // Opcode and arguments of every function; ':' and spaces compile to nothing
+    private static byte[] compile(String rule, String where) {
+        byte[] program = new byte[rule.length()];
+        int size = 0;
+        for (int i = 0; i < rule.length(); ) {
+            char op = rule.charAt(i++);
+            int args = switch (op) {
+                case ':', ' ' -> -1;
+                case 'l', 'u', 'c', 'C', 't', 'r', 'd', '[', ']' -> 0;
+                case 'T', 'D', '$', '^', '@' -> 1;
+                case 's' -> 2;
+                default -> throw new IllegalArgumentException(where + ": unknown rule function '" + op + "' in " + rule);
+            };
+            if (args < 0) {
+                continue;
+            }
+            if (i + args > rule.length()) {
+                throw new IllegalArgumentException(where + ": '" + op + "' is missing its argument in " + rule);
+            }
+            program[size++] = (byte) op;
+            for (int a = 0; a < args; a++) {
+                char arg = rule.charAt(i++);
+                program[size++] = op == 'T' || op == 'D' ? (byte) position(arg, rule, where) : (byte) arg;
+            }
+        }
+        return Arrays.copyOf(program, size);
+    }
+
+    private static int position(char c, String rule, String where) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        throw new IllegalArgumentException(where + ": invalid position '" + c + "' in " + rule);
+    }
+
+    private static int delete(byte[] out, int n, int at) {
+        if (at >= n) {
+            return n;
+        }
+        System.arraycopy(out, at + 1, out, at, n - at - 1);
+        return n - 1;
+    }
+
+    private static byte lower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + 32) : b;
+    }
+
+    private static byte upper(byte b) {
+        return b >= 'a' && b <= 'z' ? (byte) (b - 32) : b;
+    }
+
+    private static byte toggle(byte b) {
+        return b >= 'a' && b <= 'z' || b >= 'A' && b <= 'Z' ? (byte) (b ^ 32) : b;
+    }
+}
@@ -0,0 +1,83 @@
+// File: src/main/java/org/example/core/SaltGroups.java
+package org.example.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.example.model.SaltTable;
+import org.example.model.UserStore;
+import org.example.util.HashAlgorithm;
+
+/**
+ * The not yet cracked users of a salted input, grouped by salt: users are bucketed by
+ * salt id with a counting sort, then each salt gets one TargetIndex per algorithm its
+ * users have. A group is attacked by hashing the dictionary once with its salt, so the
+ * cost is O(distinct salts x D) rather than O(users x D).
+ * Read-only after construction.
+ */
+public class SaltGroups {
+
+    // One salt: its bytes, the target indexes of its users and their count
+    record Group(int saltId, byte[] salt, TargetIndex[] targets, int users) {
+    }
+
+    private final Group[] groups;
+    private final int users;
+
+    public SaltGroups(UserStore store, SaltTable salts) {
+        int[] starts = new int[salts.size() + 1];
+        for (int id = 0; id < store.size(); id++) {
+            int salt = salts.saltOf(id);
+            if (salt != SaltTable.NO_SALT) {
+                starts[salt + 1]++;
+            }
+        }
+        for (int s = 0; s < salts.size(); s++) {
+            starts[s + 1] += starts[s];
+        }
+        int[] members = new int[starts[salts.size()]];
+        int[] fill = starts.clone();
+        for (int id = 0; id < store.size(); id++) {
+            int salt = salts.saltOf(id);
+            if (salt != SaltTable.NO_SALT) {
+                members[fill[salt]++] = id;
+            }
+        }
+
+        List<Group> built = new ArrayList<>();
+        List<TargetIndex> targets = new ArrayList<>();
+        int total = 0;
+        for (int s = 0; s < salts.size(); s++) {
+            targets.clear();
+            int count = 0;
+            for (HashAlgorithm algorithm : store.algorithms()) {
+                TargetIndex index = new TargetIndex(store, algorithm, members, starts[s], starts[s + 1]);
+                if (index.size() > 0) {
+                    targets.add(index);
+                    count += index.size();
+                }
+            }
+            // Salts whose users are all cracked already (resume) need no pass at all
+            if (count > 0) {
+                built.add(new Group(s, salts.salt(s), targets.toArray(TargetIndex[]::new), count));
+                total += count;
+            }
+        }
+        this.groups = built.toArray(Group[]::new);
+        this.users = total;
+    }
+
+    // Number of salt groups with at least one target
+    public int size() {
+        return groups.length;
+    }
+
+    // Users over all groups
+    public int users() {
+        return users;
+    }
+
+    Group group(int index) {
+        return groups[index];
+    }
+}
@@ -0,0 +1,358 @@
+// File: src/main/java/org/example/core/SaltedCrackingEngine.java
+package org.example.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.example.io.MappedTextFile;
+import org.example.model.CrackedCredential;
+import org.example.model.UserStore;
+import org.example.report.StatusReporter;
+import org.example.util.Hasher;
+
+/**
+ * Attack on salted hashes: the dictionary is hashed once per distinct salt (SaltGroups)
+ * and each salted digest is probed in that salt's target index only.
+ * Work is a fork/join tree over the salt groups whose leaves fork one task per
+ * dictionary chunk, so idle workers steal chunks of a large group as readily as whole
+ * small groups and uneven salt groups still keep every core busy. A group stops
+ * hashing, at the next batch boundary, once all of its users are cracked.
+ * Large enough target indexes get a BlockedBloomFilter in front of them.
+ */
+public class SaltedCrackingEngine {
+
+    // Where the salt goes relative to the word: hash(salt + word) or hash(word + salt)
+    public enum SaltPosition {
+        PREFIX, SUFFIX;
+
+        // The bytes that are hashed for word under salt
+        public byte[] message(byte[] salt, byte[] word) {
+            byte[] first = this == PREFIX ? salt : word;
+            byte[] second = this == PREFIX ? word : salt;
+            byte[] message = Arrays.copyOf(first, first.length + second.length);
+            System.arraycopy(second, 0, message, first.length, second.length);
+            return message;
+        }
+    }
+
+    static final int BATCH_BYTES = 256 * 1024;
+    // Dictionary chunks per group are at least this big, so small wordlists are not cut into slivers
+    private static final long MIN_CHUNK_BYTES = 4L << 20;
+
+    private final SaltGroups groups;
+    private final SaltPosition position;
+    private final MappedTextFile dictionary;
+    private final int threads;
+    private final LongAdder passwordsFound;
+    private final LongAdder hashesComputed;
+    private final LongAdder bytesProcessed;
+    private final Consumer<CrackedCredential> results;
+    private final StatusReporter reporter;
+    // By group, then by target index; null where unfiltered
+    private final BlockedBloomFilter[][] filters;
+    private final LongAdder filterPassed = new LongAdder();
+    private final LongAdder filterRejected = new LongAdder();
+    private final LongAdder filterFalsePositives = new LongAdder();
+
+    // Per group: users left to crack and dictionary chunks not finished yet
+    private final AtomicIntegerArray remaining;
+    private final AtomicIntegerArray pendingChunks;
+    private final AtomicInteger finishedGroups = new AtomicInteger();
+    private final AtomicInteger crackedGroups = new AtomicInteger();
+
+    /**
+     * @param bytesProcessed dictionary bytes done over all groups; a group cracked early
+     *                       counts its skipped bytes as done, so the total is groups x size
+     */
+    public SaltedCrackingEngine(
+            SaltGroups groups,
+            SaltPosition position,
+            MappedTextFile dictionary,
+            int threads,
+            LongAdder passwordsFound,
+            LongAdder hashesComputed,
+            LongAdder bytesProcessed,
+            Consumer<CrackedCredential> results,
+            StatusReporter reporter) {
+        this(groups, position, dictionary, threads, passwordsFound, hashesComputed, bytesProcessed, results,
+                reporter, 0);
+    }
+
+    // bloomFpr: false-positive rate of the pre-filters; 0 probes the target indexes directly
+    public SaltedCrackingEngine(
+            SaltGroups groups,
+            SaltPosition position,
+            MappedTextFile dictionary,
+            int threads,
+            LongAdder passwordsFound,
+            LongAdder hashesComputed,
+            LongAdder bytesProcessed,
+            Consumer<CrackedCredential> results,
+            StatusReporter reporter,
+            double bloomFpr) {
+        this.groups = groups;
+        this.position = position;
+        this.dictionary = dictionary;
+        this.threads = threads;
+        this.passwordsFound = passwordsFound;
+        this.hashesComputed = hashesComputed;
+        this.bytesProcessed = bytesProcessed;
+        this.results = results;
+        this.reporter = reporter;
+        this.remaining = new AtomicIntegerArray(groups.size());
+        this.pendingChunks = new AtomicIntegerArray(groups.size());
+        this.filters = new BlockedBloomFilter[groups.size()][];
+        for (int g = 0; g < groups.size(); g++) {
+            remaining.set(g, groups.group(g).users());
+            TargetIndex[] targets = groups.group(g).targets();
+            filters[g] = new BlockedBloomFilter[targets.length];
+            for (int t = 0; t < targets.length; t++) {
+                filters[g][t] = BlockedBloomFilter.of(targets[t], bloomFpr);
+            }
+        }
+    }
+
+    public void startAttack() {
+        if (filtered()) {
+            reporter.filter(filterPassed, filterRejected, filterFalsePositives);
+        }
+        reporter.detail(() -> " | Salts done: " + finishedGroups.get() + "/" + groups.size()
+                + " (" + crackedGroups.get() + " fully cracked)");
+        reporter.start();
+        try {
+            attack();
+        } finally {
+            reporter.stop();
+        }
+    }
+
+    private void attack() {
+        int pieces = (int) Math.max(1, Math.min(threads * 4L, dictionary.size() / MIN_CHUNK_BYTES));
+        List<MappedTextFile.Chunk> chunks = dictionary.split(pieces);
+        if (chunks.isEmpty()) {
+            finishedGroups.set(groups.size());
+            return;
+        }
+        for (int g = 0; g < groups.size(); g++) {
+            pendingChunks.set(g, chunks.size());
+        }
+        try (ForkJoinPool pool = new ForkJoinPool(threads)) {
+            pool.invoke(new GroupRange(0, groups.size(), chunks));
+        }
+    }
+
+    public int groupCount() {
+        return groups.size();
+    }
+
+    // True if at least one target index probes through a pre-filter
+    public boolean filtered() {
+        for (BlockedBloomFilter[] group : filters) {
+            for (BlockedBloomFilter filter : group) {
+                if (filter != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // Probes let through by the pre-filters, turned away, and let through without a match
+    public long[] filterCounts() {
+        return new long[] {filterPassed.sum(), filterRejected.sum(), filterFalsePositives.sum()};
+    }
+
+    // Groups whose users were all cracked before the dictionary ran out
+    public int crackedGroups() {
+        return crackedGroups.get();
+    }
+
+    // Per-salt results for the console: a totals line plus the largest groups, at most limit of them
+    public String summary(int limit) {
+        StringBuilder text = new StringBuilder();
+        text.append("Salt groups: ").append(groups.size()).append(", ").append(crackedGroups.get())
+                .append(" fully cracked (rest of the dictionary skipped)");
+        Integer[] order = new Integer[groups.size()];
+        Arrays.setAll(order, g -> g);
+        Arrays.sort(order, Comparator.comparingInt((Integer g) -> groups.group(g).users()).reversed());
+        for (int i = 0; i < Math.min(limit, order.length); i++) {
+            SaltGroups.Group group = groups.group(order[i]);
+            int cracked = group.users() - remaining.get(order[i]);
+            text.append("\n  salt \"").append(new String(group.salt(), StandardCharsets.UTF_8)).append("\": ")
+                    .append(cracked).append('/').append(group.users()).append(" users cracked");
+        }
+        if (order.length > limit) {
+            text.append("\n  ... ").append(order.length - limit).append(" smaller groups");
+        }
+        return text.toString();
+    }
+
+    // Halves the group range; a single group forks one task per dictionary chunk
+    @SuppressWarnings("serial") // ForkJoinTask is Serializable; these tasks are never serialized
+    private final class GroupRange extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final List<MappedTextFile.Chunk> chunks;
+
+        GroupRange(int from, int to, List<MappedTextFile.Chunk> chunks) {
+            this.from = from;
+            this.to = to;
+            this.chunks = chunks;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new GroupRange(from, mid, chunks), new GroupRange(mid, to, chunks));
+                return;
+            }
+            if (from == to) {
+                return;
+            }
+            List<ChunkTask> tasks = new ArrayList<>(chunks.size());
+            for (MappedTextFile.Chunk chunk : chunks) {
+                tasks.add(new ChunkTask(from, chunk));
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    // One salt group over one dictionary chunk, in BATCH_BYTES steps
+    @SuppressWarnings("serial")
+    private final class ChunkTask extends RecursiveAction {
+        private final int group;
+        private final MappedTextFile.Chunk chunk;
+
+        ChunkTask(int group, MappedTextFile.Chunk chunk) {
+            this.group = group;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            ByteBuffer region = dictionary.region(chunk.region());
+            Prober prober = new Prober(group);
+            int from = chunk.from();
+            while (from < chunk.to()) {
+                if (remaining.get(group) == 0) {
+                    // Every user of this salt is cracked: skip the rest of the chunk
+                    bytesProcessed.add(chunk.to() - from);
+                    break;
+                }
+                int to = MappedTextFile.nextLineStart(region, Math.min(chunk.to(), from + BATCH_BYTES));
+                prober.reset();
+                MappedTextFile.forEachLine(region, from, to, prober);
+                hashesComputed.add(prober.hashed);
+                filterPassed.add(prober.passed);
+                filterRejected.add(prober.rejected);
+                filterFalsePositives.add(prober.falsePositives);
+                bytesProcessed.add(to - from);
+                from = to;
+            }
+            if (pendingChunks.decrementAndGet(group) == 0) {
+                finishedGroups.incrementAndGet();
+            }
+        }
+    }
+
+    // Per-task state: the salted message buffer, with the salt in place for PREFIX
+    private final class Prober implements MappedTextFile.LineVisitor {
+        private final int group;
+        private final byte[] salt;
+        private final TargetIndex[] targets;
+        private final BlockedBloomFilter[] targetFilters;
+        private final long[] digest = new long[DigestIndex.LANES];
+        private byte[] buffer;
+        private long hashed;
+        private long passed;
+        private long rejected;
+        private long falsePositives;
+
+        Prober(int group) {
+            this.group = group;
+            SaltGroups.Group g = groups.group(group);
+            this.salt = g.salt();
+            this.targets = g.targets();
+            this.targetFilters = filters[group];
+            this.buffer = new byte[salt.length + 256];
+            if (position == SaltPosition.PREFIX) {
+                System.arraycopy(salt, 0, buffer, 0, salt.length);
+            }
+        }
+
+        void reset() {
+            hashed = 0;
+            passed = 0;
+            rejected = 0;
+            falsePositives = 0;
+        }
+
+        @Override
+        public void line(ByteBuffer region, int offset, int length) {
+            if (buffer.length < salt.length + length) {
+                buffer = Arrays.copyOf(buffer, Math.max(salt.length + length, buffer.length * 2));
+            }
+            int wordOffset;
+            if (position == SaltPosition.PREFIX) {
+                wordOffset = salt.length;
+                region.get(offset, buffer, wordOffset, length);
+            } else {
+                wordOffset = 0;
+                region.get(offset, buffer, 0, length);
+                System.arraycopy(salt, 0, buffer, length, salt.length);
+            }
+            String plainPassword = null;
+            for (int t = 0; t < targets.length; t++) {
+                TargetIndex index = targets[t];
+                Hasher.hash(index.algorithm(), buffer, 0, salt.length + length, digest, 0);
+                hashed++;
+                BlockedBloomFilter filter = targetFilters[t];
+                if (filter != null) {
+                    if (!filter.mightContain(digest[0], digest[1])) {
+                        rejected++;
+                        continue;
+                    }
+                    passed++;
+                }
+                int id = index.find(digest[0], digest[1], digest[2], digest[3]);
+                if (id != TargetIndex.NOT_FOUND) {
+                    plainPassword = crack(index, id, wordOffset, length, plainPassword);
+                } else if (filter != null) {
+                    falsePositives++;
+                }
+            }
+        }
+
+        // Marks every user of the target chain; returns the decoded word for the next index
+        private String crack(TargetIndex index, int id, int wordOffset, int length, String plainPassword) {
+            UserStore users = index.users();
+            for (; id != TargetIndex.NOT_FOUND; id = index.next(id)) {
+                int user = index.userId(id);
+                // Lock-free CAS on the cracked bitset
+                if (users.markCracked(user)) {
+                    if (plainPassword == null) {
+                        plainPassword = new String(buffer, wordOffset, length, StandardCharsets.UTF_8);
+                    }
+                    results.accept(new CrackedCredential(users.username(user), users.hashedPassword(user),
+                            plainPassword));
+                    passwordsFound.increment();
+                    if (remaining.decrementAndGet(group) == 0) {
+                        crackedGroups.incrementAndGet();
+                    }
+                }
+            }
+            return plainPassword;
+        }
+    }
+}
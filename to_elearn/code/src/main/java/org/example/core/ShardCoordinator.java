@@ -0,0 +1,316 @@
+// File: src/main/java/org/example/core/ShardCoordinator.java
+package org.example.core;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.example.io.MappedTextFile;
+import org.example.io.ShardConnection;
+import org.example.model.CrackedCredential;
+import org.example.model.UserStore;
+import org.example.report.StatusReporter;
+
+/**
+ * Coordinator of a distributed streaming attack. The dictionary is cut into line-aligned
+ * byte-range shards; worker JVMs (ShardWorker) connect over TCP, index the users
+ * themselves and are handed one shard at a time, so faster nodes simply take more shards.
+ * Results are deduplicated against the coordinator's own UserStore and passed on; progress
+ * and hash counts are summed over all workers.
+ * A worker that disconnects, reports a failure or stays silent for WORKER_TIMEOUT_MILLIS
+ * loses its shard to the front of the queue, where the next free worker picks it up.
+ * A shard lost MAX_SHARD_FAILURES times is taken to be what kills its workers, and the
+ * run is aborted instead of handing it out forever.
+ * The attack ends when every shard is done or every user is cracked; with no workers
+ * connected it waits for one.
+ */
+public class ShardCoordinator implements AutoCloseable {
+
+    static final long SHARD_BYTES = 16L << 20;
+    // Workers report every second; this much silence means the worker is gone
+    private static final int WORKER_TIMEOUT_MILLIS = 30_000;
+    static final int MAX_SHARD_FAILURES = 3;
+
+    private final UserStore users;
+    private final ShardConnection.Job job;
+    private final LongAdder passwordsFound;
+    private final LongAdder hashesComputed;
+    private final LongAdder bytesProcessed;
+    private final Consumer<CrackedCredential> results;
+    private final StatusReporter reporter;
+    private final ServerSocket server;
+
+    private final BlockingDeque<ShardConnection.Shard> pending = new LinkedBlockingDeque<>();
+    private final int shardCount;
+    private final AtomicInteger shardsLeft;
+    private final AtomicInteger remainingUsers = new AtomicInteger();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private final Set<ShardConnection> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicInteger workersSeen = new AtomicInteger();
+    private final AtomicInteger reassigned = new AtomicInteger();
+    private final AtomicIntegerArray failures;
+    private volatile String abortReason;
+
+    /**
+     * Cuts the dictionary into shards and binds the listening socket (port 0 picks a free one).
+     * @param bytesProcessed dictionary bytes done over all workers; a lost shard's partial bytes are taken back
+     */
+    public ShardCoordinator(
+            UserStore users,
+            Path usersPath,
+            MappedTextFile dictionary,
+            String fingerprint,
+            double bloomFpr,
+            int port,
+            LongAdder passwordsFound,
+            LongAdder hashesComputed,
+            LongAdder bytesProcessed,
+            Consumer<CrackedCredential> results,
+            StatusReporter reporter) throws IOException {
+        this.users = users;
+        this.job = new ShardConnection.Job(usersPath.toAbsolutePath().toString(),
+                dictionary.path().toAbsolutePath().toString(), fingerprint, bloomFpr);
+        this.passwordsFound = passwordsFound;
+        this.hashesComputed = hashesComputed;
+        this.bytesProcessed = bytesProcessed;
+        this.results = results;
+        this.reporter = reporter;
+
+        int pieces = (int) Math.max(1, Math.min(Integer.MAX_VALUE, (dictionary.size() + SHARD_BYTES - 1) / SHARD_BYTES));
+        List<MappedTextFile.Chunk> chunks = dictionary.split(pieces);
+        for (int i = 0; i < chunks.size(); i++) {
+            MappedTextFile.Chunk chunk = chunks.get(i);
+            long start = dictionary.regionStart(chunk.region());
+            pending.add(new ShardConnection.Shard(i, start + chunk.from(), start + chunk.to()));
+        }
+        this.shardCount = chunks.size();
+        this.shardsLeft = new AtomicInteger(shardCount);
+        this.failures = new AtomicIntegerArray(shardCount);
+        for (int id = 0; id < users.size(); id++) {
+            if (users.hasDigest(id) && !users.isCracked(id)) {
+                remainingUsers.incrementAndGet();
+            }
+        }
+        this.server = new ServerSocket(port);
+    }
+
+    public int port() {
+        return server.getLocalPort();
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int workersSeen() {
+        return workersSeen.get();
+    }
+
+    // Shards handed out again after their worker was lost
+    public int reassigned() {
+        return reassigned.get();
+    }
+
+    public boolean allCracked() {
+        return remainingUsers.get() == 0;
+    }
+
+    /**
+     * Accepts workers until the attack is over; each connection is served on its own virtual thread.
+     * @throws IOException if a shard failed MAX_SHARD_FAILURES times
+     */
+    public void startAttack() throws InterruptedException, IOException {
+        if (shardCount == 0 || remainingUsers.get() == 0) {
+            finished.countDown();
+        }
+        reporter.detail(() -> " | Workers: " + activeWorkers.get() + " | Shards left: " + shardsLeft.get()
+                + "/" + shardCount);
+        reporter.start();
+        Thread acceptor = Thread.ofVirtual().name("coordinator-accept").start(this::accept);
+        try {
+            finished.await();
+        } finally {
+            try {
+                server.close();
+            } catch (IOException e) {
+                // Only stops the acceptor
+            }
+            // Tell workers still busy (all users cracked) to drop their shard
+            for (ShardConnection connection : connections) {
+                try {
+                    connection.send(new ShardConnection.Stop());
+                    connection.flush();
+                } catch (IOException e) {
+                    // Already gone
+                }
+            }
+            acceptor.join();
+            reporter.stop();
+        }
+        if (abortReason != null) {
+            throw new IOException(abortReason);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            Socket socket;
+            try {
+                socket = server.accept();
+            } catch (IOException e) {
+                // Closed when the attack ends
+                return;
+            }
+            Thread.ofVirtual().name("coordinator-" + socket.getRemoteSocketAddress()).start(() -> serve(socket));
+        }
+    }
+
+    private void serve(Socket socket) {
+        ShardConnection.Shard inFlight = null;
+        ShardConnection connection = null;
+        try {
+            socket.setTcpNoDelay(true);
+            connection = new ShardConnection(socket);
+            connection.send(job);
+            connection.flush();
+            ShardConnection.Message hello = connection.read();
+            if (hello instanceof ShardConnection.Failed failed) {
+                System.out.println("\nWorker " + connection.remote() + " could not start: " + failed.reason());
+                return;
+            }
+            if (!(hello instanceof ShardConnection.Ready)) {
+                throw new IOException("Expected Ready, got " + hello);
+            }
+            // Loading may take long; from here on the worker reports every second
+            connection.readTimeout(WORKER_TIMEOUT_MILLIS);
+            connections.add(connection);
+            workersSeen.incrementAndGet();
+            activeWorkers.incrementAndGet();
+            try {
+                while (finished.getCount() > 0) {
+                    ShardConnection.Shard shard = pending.poll(200, TimeUnit.MILLISECONDS);
+                    if (shard == null) {
+                        continue;
+                    }
+                    inFlight = shard;
+                    connection.send(shard);
+                    connection.flush();
+                    await(connection, shard);
+                    inFlight = null;
+                }
+                connection.send(new ShardConnection.Stop());
+                connection.flush();
+            } finally {
+                activeWorkers.decrementAndGet();
+                connections.remove(connection);
+            }
+        } catch (WorkerLost e) {
+            lost(connection, inFlight, e.partialBytes, e.getCause());
+        } catch (IOException e) {
+            lost(connection, inFlight, 0, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            lost(connection, inFlight, 0, e);
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Nothing left to do with it
+            }
+        }
+    }
+
+    // Relays results and progress until the worker reports the shard done
+    private void await(ShardConnection connection, ShardConnection.Shard shard) throws WorkerLost {
+        long partialBytes = 0;
+        try {
+            while (true) {
+                switch (connection.read()) {
+                    case ShardConnection.Cracked cracked -> cracked(cracked);
+                    case ShardConnection.Progress progress -> {
+                        hashesComputed.add(progress.hashes());
+                        bytesProcessed.add(progress.bytes());
+                        partialBytes += progress.bytes();
+                    }
+                    case ShardConnection.Done done -> {
+                        // Progress may lag behind; count the shard as exactly its length
+                        bytesProcessed.add(shard.to() - shard.from() - partialBytes);
+                        if (shardsLeft.decrementAndGet() == 0) {
+                            finished.countDown();
+                        }
+                        return;
+                    }
+                    case ShardConnection.Failed failed -> throw new IOException(failed.reason());
+                    default -> throw new IOException("Unexpected message from a worker");
+                }
+            }
+        } catch (IOException e) {
+            throw new WorkerLost(partialBytes, e);
+        }
+    }
+
+    private void cracked(ShardConnection.Cracked cracked) {
+        int id = users.find(cracked.username());
+        // Several workers may find the same user; the CAS keeps the first
+        if (id != UserStore.NOT_FOUND
+                && users.hashedPassword(id).equalsIgnoreCase(cracked.hashedPassword())
+                && users.markCracked(id)) {
+            results.accept(new CrackedCredential(users.username(id), users.hashedPassword(id),
+                    cracked.plainPassword()));
+            passwordsFound.increment();
+            if (remainingUsers.decrementAndGet() == 0) {
+                finished.countDown();
+            }
+        }
+    }
+
+    // Puts the worker's shard back at the front of the queue, without its partial progress; ends the run
+    // once the shard has failed MAX_SHARD_FAILURES times
+    private void lost(ShardConnection connection, ShardConnection.Shard inFlight, long partialBytes, Throwable cause) {
+        if (inFlight == null || finished.getCount() == 0) {
+            return;
+        }
+        bytesProcessed.add(-partialBytes);
+        int attempts = failures.incrementAndGet(inFlight.id());
+        if (attempts >= MAX_SHARD_FAILURES) {
+            abortReason = "Shard " + inFlight.id() + " (dictionary bytes " + inFlight.from() + "-" + inFlight.to()
+                    + ") failed on " + attempts + " workers, last: " + cause;
+            finished.countDown();
+            return;
+        }
+        pending.addFirst(inFlight);
+        reassigned.incrementAndGet();
+        System.out.println("\nLost worker " + (connection == null ? "?" : connection.remote()) + " (" + cause
+                + "); shard " + inFlight.id() + " goes back in the queue.");
+    }
+
+    // A worker failure part way through a shard, with the progress it had reported
+    private static final class WorkerLost extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final long partialBytes;
+
+        WorkerLost(long partialBytes, IOException cause) {
+            super(cause);
+            this.partialBytes = partialBytes;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+// File: src/main/java/org/example/core/ShardWorker.java
+package org.example.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.io.HashManager;
+import org.example.io.MappedTextFile;
+import org.example.io.ShardConnection;
+import org.example.model.UserStore;
+import org.example.report.StatusReporter;
+import org.example.util.HashAlgorithm;
+
+/**
+ * Worker JVM of a distributed streaming attack. Connects to a ShardCoordinator, loads the
+ * users and maps the dictionary named in its Job (the paths must resolve to the same files
+ * here, e.g. on a shared filesystem; the fingerprint is checked), then runs a
+ * StreamingCrackingEngine over each dictionary shard it is handed.
+ * Results are sent as they are found; a Progress message every second carries the
+ * counters and doubles as the heartbeat the coordinator uses to detect a dead worker.
+ */
+public class ShardWorker {
+
+    private static final long PROGRESS_MILLIS = 1000;
+
+    private final String host;
+    private final int port;
+    private final int threads;
+
+    private final LongAdder passwordsFound = new LongAdder();
+    private final LongAdder hashesComputed = new LongAdder();
+    private final LongAdder bytesProcessed = new LongAdder();
+    // Counter values already reported; guarded by this
+    private long reportedBytes;
+    private long reportedHashes;
+
+    public ShardWorker(String host, int port, int threads) {
+        this.host = host;
+        this.port = port;
+        this.threads = threads;
+    }
+
+    // Returns once the coordinator sends Stop or closes the connection
+    public void run() throws Exception {
+        try (ShardConnection connection = ShardConnection.connect(host, port)) {
+            if (!(connection.read() instanceof ShardConnection.Job job)) {
+                throw new IOException("Expected a job from " + connection.remote());
+            }
+            UserStore users;
+            MappedTextFile dictionary;
+            try {
+                String fingerprint = Checkpoint.fingerprint(Paths.get(job.usersPath()), Paths.get(job.dictionaryPath()));
+                if (!fingerprint.equals(job.fingerprint())) {
+                    throw new IOException("Inputs differ from the coordinator's: " + job.usersPath() + ", "
+                            + job.dictionaryPath());
+                }
+                users = new HashManager().loadUsers(job.usersPath());
+                dictionary = MappedTextFile.map(Paths.get(job.dictionaryPath()));
+            } catch (IOException e) {
+                connection.send(new ShardConnection.Failed(e.getMessage()));
+                connection.flush();
+                throw e;
+            }
+            List<TargetIndex> targets = new ArrayList<>();
+            for (HashAlgorithm algorithm : users.algorithms()) {
+                targets.add(new TargetIndex(users, algorithm));
+            }
+            System.out.println("Worker connected to " + connection.remote() + ": " + users.size() + " users, "
+                    + dictionary.size() + " dictionary bytes, " + threads + " threads.");
+            connection.send(new ShardConnection.Ready(threads));
+            connection.flush();
+            serve(connection, targets, dictionary, job.bloomFpr());
+        }
+        System.out.println("Worker done: " + passwordsFound.sum() + " passwords found, "
+                + hashesComputed.sum() + " hashes computed.");
+    }
+
+    // Reads shards and Stop on this thread; the shards themselves run one at a time on a runner thread
+    private void serve(ShardConnection connection, List<TargetIndex> targets, MappedTextFile dictionary,
+            double bloomFpr) throws IOException {
+        AtomicReference<StreamingCrackingEngine> current = new AtomicReference<>();
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("progress").daemon().factory());
+        ExecutorService runner = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("shard").daemon().factory());
+        ExecutionBackend backend = new ExecutionBackend(ExecutionBackend.Kind.FORKJOIN, threads);
+        ticker.scheduleWithFixedDelay(() -> {
+            try {
+                sendProgress(connection);
+            } catch (IOException e) {
+                // The reader sees the broken connection too and ends the worker
+            }
+        }, PROGRESS_MILLIS, PROGRESS_MILLIS, TimeUnit.MILLISECONDS);
+        try {
+            while (true) {
+                ShardConnection.Message message;
+                try {
+                    message = connection.read();
+                } catch (IOException e) {
+                    // Coordinator gone: nobody is left to take the results
+                    return;
+                }
+                switch (message) {
+                    case ShardConnection.Shard shard -> runner.execute(
+                            () -> runShard(connection, shard, targets, dictionary, bloomFpr, backend, current));
+                    case ShardConnection.Stop stop -> {
+                        return;
+                    }
+                    default -> throw new IOException("Unexpected message from the coordinator: " + message);
+                }
+            }
+        } finally {
+            StreamingCrackingEngine engine = current.get();
+            if (engine != null) {
+                engine.stop();
+            }
+            ticker.shutdownNow();
+            runner.shutdown();
+            backend.close();
+        }
+    }
+
+    private void runShard(ShardConnection connection, ShardConnection.Shard shard, List<TargetIndex> targets,
+            MappedTextFile dictionary, double bloomFpr, ExecutionBackend backend,
+            AtomicReference<StreamingCrackingEngine> current) {
+        // Silent reporter: the coordinator shows the progress
+        StatusReporter reporter = new StatusReporter(0, passwordsFound, new LongAdder(), hashesComputed,
+                0, bytesProcessed, 0);
+        StreamingCrackingEngine engine = new StreamingCrackingEngine(
+                targets,
+                dictionary,
+                backend,
+                passwordsFound,
+                hashesComputed,
+                bytesProcessed,
+                credential -> {
+                    try {
+                        connection.send(new ShardConnection.Cracked(credential.username(),
+                                credential.hashedPassword(), credential.plainPassword()));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                },
+                reporter,
+                StreamingCrackingEngine.Options.DEFAULT
+                        .withRange(shard.from(), shard.to())
+                        .withBloomFpr(bloomFpr)
+        );
+        current.set(engine);
+        try {
+            try {
+                engine.startAttack();
+                sendProgress(connection);
+                connection.send(new ShardConnection.Done(shard.id()));
+            } catch (Exception e) {
+                connection.send(new ShardConnection.Failed("Shard " + shard.id() + ": " + e));
+            }
+            connection.flush();
+        } catch (IOException e) {
+            // Connection lost; the coordinator reassigns the shard
+        }
+    }
+
+    // Counters since the previous report, so the coordinator can add them up over all workers
+    private synchronized void sendProgress(ShardConnection connection) throws IOException {
+        long bytes = bytesProcessed.sum();
+        long hashes = hashesComputed.sum();
+        connection.send(new ShardConnection.Progress(bytes - reportedBytes, hashes - reportedHashes));
+        connection.flush();
+        reportedBytes = bytes;
+        reportedHashes = hashes;
+    }
+}
@@ -0,0 +1,56 @@
+// File: src/main/java/org/example/core/ShardedDigestIndex.java
+package org.example.core;
+
+import org.example.model.UserStore;
+
+/**
+ * A set of independent DigestIndex shards partitioned by the top bits of digest lane 0.
+ * Each shard is built by exactly one thread, so building needs no locks, and a lookup
+ * still probes a single shard (the slot inside a shard uses the low bits of lane 0).
+ */
+public class ShardedDigestIndex implements PasswordIndex {
+
+    private final DigestIndex[] shards;
+    private final int shift;
+
+    ShardedDigestIndex(DigestIndex[] shards) {
+        this.shards = shards;
+        this.shift = shiftFor(shards.length);
+    }
+
+    // Shard count must be a power of two; returns the right-shift that selects the shard bits
+    static int shiftFor(int shardCount) {
+        return 64 - Integer.numberOfTrailingZeros(shardCount);
+    }
+
+    // Works for a single shard too: x >>> 64 is x, masked with 0
+    static int shardOf(long l0, int shift, int shardCount) {
+        return (int) (l0 >>> shift) & (shardCount - 1);
+    }
+
+    @Override
+    public String lookup(UserStore users, int id) {
+        if (!users.hasDigest(id)) {
+            return null;
+        }
+        long l0 = users.lane(id, 0);
+        long l1 = users.lane(id, 1);
+        long l2 = users.lane(id, 2);
+        long l3 = users.lane(id, 3);
+        DigestIndex shard = shards[shardOf(l0, shift, shards.length)];
+        int ref = shard.find(l0, l1, l2, l3);
+        return ref == DigestIndex.NOT_FOUND ? null : shard.plaintext(ref);
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public long size() {
+        long total = 0;
+        for (DigestIndex shard : shards) {
+            total += shard.size();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,224 @@
+// File: src/main/java/org/example/core/SortMergeJoinEngine.java
+package org.example.core;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.example.io.DigestRunSorter;
+import org.example.io.HashManager;
+import org.example.io.MappedTextFile;
+import org.example.model.CrackedCredential;
+import org.example.report.StatusReporter;
+import org.example.util.HashAlgorithm;
+import org.example.util.Hasher;
+
+/**
+ * External-memory attack for inputs where neither a dictionary index nor a UserStore fits
+ * in the heap. Both sides become sorted run files of (digest, offset) records
+ * (DigestRunSorter): the users file is scanned once into target runs, the dictionary is
+ * hashed into word runs per algorithm group (DictionaryCache.hashRuns), and the two
+ * k-way merged streams are joined in a single sequential pass. Heap use is bounded by the
+ * sort buffers and run time by disk bandwidth.
+ * Records carry file offsets only; the username, hash and word of a match are read back
+ * from the mapped files, and the word is re-hashed against the full hash before it is
+ * reported. Every line of the users file is a target of its own: unlike a UserStore,
+ * nothing collapses duplicate usernames.
+ */
+public class SortMergeJoinEngine {
+
+    // Target payloads are (line offset << ALGORITHM_BITS) | algorithm ordinal
+    private static final int ALGORITHM_BITS = 3;
+
+    private final MappedTextFile users;
+    private final MappedTextFile dictionary;
+    private final Path tempDir;
+    private final int threads;
+    private final LongAdder passwordsFound;
+    private final LongAdder hashesComputed;
+    private final LongAdder usersChecked;
+    private final LongAdder bytesProcessed;
+    private final Consumer<CrackedCredential> results;
+
+    private DigestRunSorter targets;
+    private final Set<HashAlgorithm> algorithms = EnumSet.noneOf(HashAlgorithm.class);
+    private long targetCount;
+    private long skippedLines;
+
+    /**
+     * @param tempDir        where the run files go; they are deleted as soon as they are merged
+     * @param bytesProcessed dictionary bytes hashed, summed over the algorithm groups
+     */
+    public SortMergeJoinEngine(
+            MappedTextFile users,
+            MappedTextFile dictionary,
+            Path tempDir,
+            int threads,
+            LongAdder passwordsFound,
+            LongAdder hashesComputed,
+            LongAdder usersChecked,
+            LongAdder bytesProcessed,
+            Consumer<CrackedCredential> results) {
+        this.users = users;
+        this.dictionary = dictionary;
+        this.tempDir = tempDir;
+        this.threads = Math.max(1, threads);
+        this.passwordsFound = passwordsFound;
+        this.hashesComputed = hashesComputed;
+        this.usersChecked = usersChecked;
+        this.bytesProcessed = bytesProcessed;
+        this.results = results;
+    }
+
+    // Scans the users file into sorted target runs; call once, before startAttack()
+    public void sortTargets() throws IOException {
+        // One sorter for every group, up to a quarter of the heap, like the dictionary side
+        int runRecords = (int) Math.max(1 << 16, Math.min(Integer.MAX_VALUE / 8,
+                Runtime.getRuntime().maxMemory() / 4 / DigestRunSorter.RECORD_BYTES));
+        targets = new DigestRunSorter(tempDir, runRecords);
+        long[] lanes = new long[HashAlgorithm.MAX_BYTES / 8];
+        IOException[] failure = new IOException[1];
+        new HashManager().scanTargets(users, (line, nameLength, hashOffset, hashLength, algorithm, lineOffset) -> {
+            if (failure[0] != null) {
+                return;
+            }
+            if (algorithm == null || hashLength != algorithm.hexLength()
+                    || !Hasher.decodeHex(line, hashOffset, hashLength, lanes)) {
+                // Same as a UserStore user without a digest: it can never be cracked
+                skippedLines++;
+                return;
+            }
+            try {
+                targets.add(lanes[0], lanes[1], lanes[2], lanes[3],
+                        lineOffset << ALGORITHM_BITS | algorithm.ordinal());
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+            algorithms.add(algorithm);
+            targetCount++;
+        });
+        if (failure[0] != null) {
+            targets.close();
+            throw failure[0];
+        }
+        targets.finish();
+    }
+
+    // Users file lines with a usable hash
+    public long targetCount() {
+        return targetCount;
+    }
+
+    // Users file lines without a usable hash (unknown algorithm or not hex)
+    public long skippedLines() {
+        return skippedLines;
+    }
+
+    public Set<HashAlgorithm> algorithms() {
+        return algorithms;
+    }
+
+    // Run files of the sorted targets
+    public int targetRuns() {
+        return targets.runs().size();
+    }
+
+    /**
+     * Hashes the dictionary into runs and joins them with the targets, one algorithm
+     * group at a time, then deletes all run files.
+     * @param reporter progress over dictionary bytes times groups (see bytesProcessed)
+     */
+    public void startAttack(StatusReporter reporter) throws Exception {
+        reporter.start();
+        try {
+            for (HashAlgorithm algorithm : algorithms) {
+                List<DigestRunSorter> words = new DictionaryCache(hashesComputed, threads, algorithm)
+                        .hashRuns(dictionary, 0, tempDir, bytesProcessed);
+                try {
+                    join(algorithm, words);
+                } finally {
+                    for (DigestRunSorter sorter : words) {
+                        sorter.close();
+                    }
+                }
+            }
+        } finally {
+            targets.close();
+            reporter.stop();
+        }
+    }
+
+    // Sequential merge join; equal digests pair every target with the first word of that digest
+    private void join(HashAlgorithm algorithm, List<DigestRunSorter> words) throws IOException {
+        List<FileChannel> opened = new ArrayList<>();
+        try {
+            DigestRunSorter.Cursor target = new DigestRunSorter.Cursor(sources(targets.runs(), opened));
+            List<Path> wordRuns = new ArrayList<>();
+            for (DigestRunSorter sorter : words) {
+                wordRuns.addAll(sorter.runs());
+            }
+            DigestRunSorter.Cursor word = new DigestRunSorter.Cursor(sources(wordRuns, opened));
+
+            boolean haveTarget = target.next();
+            boolean haveWord = word.next();
+            while (haveTarget && haveWord) {
+                if ((target.payload() & (1 << ALGORITHM_BITS) - 1) != algorithm.ordinal()) {
+                    // Another group's target, joined in its own pass
+                    haveTarget = target.next();
+                    continue;
+                }
+                int c = target.compareDigest(word);
+                if (c > 0) {
+                    haveWord = word.next();
+                    continue;
+                }
+                if (c == 0) {
+                    crack(algorithm, target.payload() >>> ALGORITHM_BITS, word.payload());
+                }
+                usersChecked.increment();
+                haveTarget = target.next();
+            }
+        } finally {
+            for (FileChannel channel : opened) {
+                channel.close();
+            }
+        }
+    }
+
+    private static List<DigestRunSorter.Source> sources(List<Path> runs, List<FileChannel> opened) throws IOException {
+        List<DigestRunSorter.Source> sources = new ArrayList<>();
+        for (Path run : runs) {
+            FileChannel channel = FileChannel.open(run, StandardOpenOption.READ);
+            opened.add(channel);
+            sources.add(new DigestRunSorter.Source(channel, 0, channel.size()));
+        }
+        return sources;
+    }
+
+    // Reads the target line and the word back and reports the pair if the word really hashes to it
+    private void crack(HashAlgorithm algorithm, long lineOffset, long wordOffset) {
+        byte[] line = users.lineAt(lineOffset);
+        byte[] word = dictionary.lineAt(wordOffset);
+        if (line == null || word == null) {
+            return;
+        }
+        String[] columns = new String(line, StandardCharsets.UTF_8).split(",", 3);
+        if (columns.length < 2) {
+            return;
+        }
+        String hashedPassword = columns[1].trim();
+        if (!Hasher.hex(algorithm, word).equalsIgnoreCase(hashedPassword)) {
+            return;
+        }
+        results.accept(new CrackedCredential(columns[0], hashedPassword, new String(word, StandardCharsets.UTF_8)));
+        passwordsFound.increment();
+    }
+}
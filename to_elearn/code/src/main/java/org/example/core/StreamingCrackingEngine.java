@@ -0,0 +1,364 @@
+// File: src/main/java/org/example/core/StreamingCrackingEngine.java
+package org.example.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.example.io.MappedTextFile;
+import org.example.model.CrackedCredential;
+import org.example.model.UserStore;
+import org.example.report.StatusReporter;
+import org.example.util.Hasher;
+
+/**
+ * Hash-and-probe attack that never materializes the dictionary.
+ * The target hashes are indexed once (TargetIndex); a producer then cuts the mapped
+ * wordlist into line-aligned batches and feeds them through a bounded queue to workers
+ * on the ExecutionBackend, which hash each word and probe the targets. Heap use is proportional to the
+ * number of users, and the run stops early once every user has been cracked.
+ * With several algorithm groups each word is hashed once per group and probed in that
+ * group's index only. An optional BlockedBloomFilter per group turns away most misses
+ * before they reach the index.
+ * With a RuleSet every word is mangled into one candidate per rule, generated in place in
+ * the worker's buffer and hashed straight away, so no expanded list ever exists. Work
+ * items are (batch x rule range), which keeps all cores busy when the rules far outnumber
+ * the batches; a batch counts as processed once all its rule ranges are done.
+ */
+public class StreamingCrackingEngine {
+
+    static final int BATCH_BYTES = 256 * 1024;
+    // Rules per work item; a batch with more rules is handed out in several parts
+    static final int RULES_PER_TASK = 16;
+
+    // Rules [ruleFrom, ruleTo) over the lines of a batch; parts counts down the batch's unfinished items
+    private record Task(MappedTextFile.Chunk batch, int ruleFrom, int ruleTo, AtomicInteger parts) {
+    }
+
+    // End-of-stream marker for the workers
+    private static final Task POISON = new Task(null, 0, 0, null);
+
+    private final TargetIndex[] targets;
+    private final MappedTextFile dictionary;
+    private final ExecutionBackend backend;
+    private final int threads;
+    private final LongAdder passwordsFound;
+    private final LongAdder hashesComputed;
+    private final LongAdder bytesProcessed;
+    private final Consumer<CrackedCredential> results;
+    private final StatusReporter reporter;
+    // See Options
+    private final long startOffset;
+    private final long endOffset;
+    private final Checkpoint checkpoint;
+    private final RuleSet rules;
+    // By group, null where the group is unfiltered
+    private final BlockedBloomFilter[] filters;
+    private final LongAdder filterPassed = new LongAdder();
+    private final LongAdder filterRejected = new LongAdder();
+    private final LongAdder filterFalsePositives = new LongAdder();
+
+    // Only touched on a hit, so a plain atomic is fine here
+    private final AtomicInteger remaining;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean allCracked;
+    // Set on early termination or a worker failure; producer and workers stop doing work
+    private volatile boolean stopped;
+
+    /**
+     * The optional parts of a run; DEFAULT hashes the whole dictionary once, unfiltered, without a journal.
+     * @param startOffset  dictionary offset to resume from (or a shard start); must be a line start
+     * @param endOffset    end of the range to hash; must be a line start or at least the file size
+     * @param checkpoint  told about every finished batch, or null
+     * @param bloomFpr    false-positive rate of the per-group pre-filters; 0 probes the indexes directly
+     * @param rules       every candidate the rules make of each word is hashed (IDENTITY: the words themselves)
+     */
+    public record Options(long startOffset, long endOffset, Checkpoint checkpoint, double bloomFpr, RuleSet rules) {
+
+        public static final Options DEFAULT = new Options(0, Long.MAX_VALUE, null, 0, RuleSet.IDENTITY);
+
+        public Options withRange(long startOffset, long endOffset) {
+            return new Options(startOffset, endOffset, checkpoint, bloomFpr, rules);
+        }
+
+        public Options withCheckpoint(Checkpoint checkpoint) {
+            return new Options(startOffset, endOffset, checkpoint, bloomFpr, rules);
+        }
+
+        public Options withBloomFpr(double bloomFpr) {
+            return new Options(startOffset, endOffset, checkpoint, bloomFpr, rules);
+        }
+
+        public Options withRules(RuleSet rules) {
+            return new Options(startOffset, endOffset, checkpoint, bloomFpr, rules);
+        }
+    }
+
+    /**
+     * @param targets one TargetIndex per algorithm group
+     * @param backend runs backend.threads() workers and times each batch into its task latency
+     */
+    public StreamingCrackingEngine(
+            List<TargetIndex> targets,
+            MappedTextFile dictionary,
+            ExecutionBackend backend,
+            LongAdder passwordsFound,
+            LongAdder hashesComputed,
+            LongAdder bytesProcessed,
+            Consumer<CrackedCredential> results,
+            StatusReporter reporter,
+            Options options) {
+        this.targets = targets.toArray(TargetIndex[]::new);
+        this.dictionary = dictionary;
+        this.backend = backend;
+        this.threads = backend.threads();
+        this.passwordsFound = passwordsFound;
+        this.hashesComputed = hashesComputed;
+        this.bytesProcessed = bytesProcessed;
+        this.results = results;
+        this.reporter = reporter;
+        this.startOffset = options.startOffset();
+        this.endOffset = Math.min(options.endOffset(), dictionary.size());
+        this.checkpoint = options.checkpoint();
+        this.rules = options.rules();
+        this.filters = new BlockedBloomFilter[this.targets.length];
+        for (int g = 0; g < filters.length; g++) {
+            filters[g] = BlockedBloomFilter.of(this.targets[g], options.bloomFpr());
+        }
+        int total = targets.stream().mapToInt(TargetIndex::size).sum();
+        this.remaining = new AtomicInteger(total);
+        this.allCracked = total == 0;
+        this.stopped = allCracked;
+    }
+
+    public void startAttack() throws Exception {
+        if (filtered()) {
+            reporter.filter(filterPassed, filterRejected, filterFalsePositives);
+        }
+        reporter.start();
+        try {
+            attack();
+        } finally {
+            reporter.stop();
+        }
+    }
+
+    private void attack() throws Exception {
+        // Bounded: the producer can only run a couple of batches ahead of the workers
+        BlockingQueue<Task> batches = new ArrayBlockingQueue<>(threads * 2);
+
+        List<Future<?>> running = backend.startWorkers(threads, () -> {
+            consume(batches);
+            return null;
+        });
+        try {
+            produce(batches);
+            for (int i = 0; i < threads; i++) {
+                batches.put(POISON);
+            }
+            for (Future<?> worker : running) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            // The pool outlives this attack; do not leave its workers waiting on the queue
+            stopped = true;
+            running.forEach(worker -> worker.cancel(true));
+            throw e;
+        }
+        // Surface any worker failure on the caller's thread
+        Throwable failed = failure.get();
+        if (failed instanceof Error error) {
+            throw error;
+        }
+        if (failed instanceof Exception exception) {
+            throw exception;
+        }
+        if (failed != null) {
+            throw new IllegalStateException(failed);
+        }
+    }
+
+    public boolean allCracked() {
+        return allCracked;
+    }
+
+    // Makes the producer and the workers drop the remaining batches; startAttack() returns soon after
+    public void stop() {
+        stopped = true;
+    }
+
+    // True if at least one group probes through a pre-filter
+    public boolean filtered() {
+        for (BlockedBloomFilter filter : filters) {
+            if (filter != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Probes let through by the pre-filters, turned away, and let through without a match
+    public long[] filterCounts() {
+        return new long[] {filterPassed.sum(), filterRejected.sum(), filterFalsePositives.sum()};
+    }
+
+    // Cuts each mapped region of [startOffset, endOffset) into ~BATCH_BYTES line-aligned ranges, lazily,
+    // and hands each out as one task per RULES_PER_TASK rules
+    private void produce(BlockingQueue<Task> batches) throws InterruptedException {
+        int first = startOffset >= endOffset ? dictionary.regionCount() : dictionary.regionOf(startOffset);
+        for (int r = first; r < dictionary.regionCount() && dictionary.regionStart(r) < endOffset && !stopped; r++) {
+            ByteBuffer region = dictionary.region(r);
+            int limit = (int) Math.min(region.limit(), endOffset - dictionary.regionStart(r));
+            int from = (int) Math.max(0, startOffset - dictionary.regionStart(r));
+            while (from < limit && !stopped) {
+                int to = MappedTextFile.nextLineStart(region, Math.min(limit, from + BATCH_BYTES));
+                MappedTextFile.Chunk batch = new MappedTextFile.Chunk(r, from, to);
+                int parts = (rules.size() + RULES_PER_TASK - 1) / RULES_PER_TASK;
+                AtomicInteger left = new AtomicInteger(parts);
+                for (int rule = 0; rule < rules.size() && !stopped; rule += RULES_PER_TASK) {
+                    batches.put(new Task(batch, rule, Math.min(rules.size(), rule + RULES_PER_TASK), left));
+                }
+                from = to;
+            }
+        }
+    }
+
+    private void consume(BlockingQueue<Task> batches) throws InterruptedException {
+        Prober prober = new Prober();
+        while (true) {
+            Task task = batches.take();
+            if (task == POISON) {
+                return;
+            }
+            if (stopped) {
+                // Keep draining so the producer never blocks on a full queue
+                continue;
+            }
+            try {
+                process(task, prober);
+            } catch (Throwable t) {
+                // Errors too (OutOfMemoryError, StackOverflowError): a worker that died without stopping
+                // the run would leave the producer blocked on a full queue. This one keeps draining instead
+                failure.compareAndSet(null, t);
+                stopped = true;
+            }
+        }
+    }
+
+    private void process(Task task, Prober prober) {
+        MappedTextFile.Chunk batch = task.batch();
+        prober.reset(task.ruleFrom(), task.ruleTo());
+        long begin = System.nanoTime();
+        dictionary.forEachLine(batch, prober);
+        backend.taskLatency().record(System.nanoTime() - begin);
+        hashesComputed.add(prober.hashed);
+        filterPassed.add(prober.passed);
+        filterRejected.add(prober.rejected);
+        filterFalsePositives.add(prober.falsePositives);
+        if (task.parts().decrementAndGet() > 0) {
+            return;
+        }
+        bytesProcessed.add(batch.length());
+        if (checkpoint != null) {
+            long start = dictionary.regionStart(batch.region());
+            checkpoint.completed(start + batch.from(), start + batch.to());
+        }
+    }
+
+    // Per-worker state: reusable word and candidate buffers, digest lanes and per-task counts
+    private final class Prober implements MappedTextFile.LineVisitor {
+        private final long[] digest = new long[DigestIndex.LANES];
+        private final byte[] candidate = new byte[RuleSet.MAX_LENGTH];
+        private byte[] buffer = new byte[256];
+        private int ruleFrom;
+        private int ruleTo;
+        private long hashed;
+        private long passed;
+        private long rejected;
+        private long falsePositives;
+
+        void reset(int ruleFrom, int ruleTo) {
+            this.ruleFrom = ruleFrom;
+            this.ruleTo = ruleTo;
+            hashed = 0;
+            passed = 0;
+            rejected = 0;
+            falsePositives = 0;
+        }
+
+        @Override
+        public void line(ByteBuffer region, int offset, int length) {
+            if (buffer.length < length) {
+                buffer = new byte[Math.max(length, buffer.length * 2)];
+            }
+            region.get(offset, buffer, 0, length);
+            if (rules == RuleSet.IDENTITY) {
+                // No rules file: keep the plain dictionary run free of the rule loop
+                probe(buffer, length);
+                return;
+            }
+            for (int rule = ruleFrom; rule < ruleTo; rule++) {
+                if (rules.isIdentity(rule)) {
+                    probe(buffer, length);
+                } else {
+                    int size = rules.apply(rule, buffer, length, candidate);
+                    if (size >= 0) {
+                        probe(candidate, size);
+                    }
+                }
+            }
+        }
+
+        private void probe(byte[] word, int length) {
+            String plainPassword = null;
+            for (int g = 0; g < targets.length; g++) {
+                TargetIndex group = targets[g];
+                Hasher.hash(group.algorithm(), word, 0, length, digest, 0);
+                hashed++;
+                BlockedBloomFilter filter = filters[g];
+                if (filter != null) {
+                    if (!filter.mightContain(digest[0], digest[1])) {
+                        rejected++;
+                        continue;
+                    }
+                    passed++;
+                }
+                int id = group.find(digest[0], digest[1], digest[2], digest[3]);
+                if (id != TargetIndex.NOT_FOUND) {
+                    plainPassword = crack(group, id, word, length, plainPassword);
+                } else if (filter != null) {
+                    falsePositives++;
+                }
+            }
+        }
+
+        // Marks every user of the target chain; returns the decoded word for the next group
+        private String crack(TargetIndex group, int id, byte[] word, int length, String plainPassword) {
+            UserStore users = group.users();
+            for (; id != TargetIndex.NOT_FOUND; id = group.next(id)) {
+                int user = group.userId(id);
+                // Lock-free CAS on the cracked bitset
+                if (users.markCracked(user)) {
+                    if (plainPassword == null) {
+                        plainPassword = new String(word, 0, length, StandardCharsets.UTF_8);
+                    }
+                    results.accept(new CrackedCredential(users.username(user), users.hashedPassword(user),
+                            plainPassword));
+                    passwordsFound.increment();
+                    if (remaining.decrementAndGet() == 0) {
+                        allCracked = true;
+                        stopped = true;
+                    }
+                }
+            }
+            return plainPassword;
+        }
+    }
+}
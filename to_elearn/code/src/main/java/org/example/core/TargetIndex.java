@@ -0,0 +1,145 @@
+// File: src/main/java/org/example/core/TargetIndex.java
+package org.example.core;
+
+import org.example.model.UserStore;
+import org.example.util.HashAlgorithm;
+
+/**
+ * Open-addressing index over the target hashes (the users), the mirror image of
+ * DigestIndex: digest lanes -> target id. Used when the dictionary is streamed past
+ * the users, so memory scales with the user count rather than the wordlist.
+ * Users sharing a digest are chained through next[], so one hit cracks all of them.
+ * Slots hold only target ids; digests are compared against the UserStore columns,
+ * so the table adds a few bytes per slot rather than a second copy of every digest.
+ * One index covers the users of one HashAlgorithm.
+ * Read-only after construction and safe to share between threads.
+ */
+public class TargetIndex {
+
+    public static final int NOT_FOUND = -1;
+
+    private static final double LOAD_FACTOR = 0.75;
+
+    private final UserStore users;
+    private final HashAlgorithm algorithm;
+    private final int[] userIds;   // target id -> UserStore id
+    private final int[] next;      // next target id with the same digest, or NOT_FOUND
+    private final int[] heads;     // first target id + 1, 0 marks an empty slot
+    private final int mask;
+    private final int distinctDigests;
+
+    public TargetIndex(UserStore users) {
+        this(users, HashAlgorithm.SHA256);
+    }
+
+    // Indexes the users of the algorithm that have a valid digest and are not cracked yet (e.g. before a resume)
+    public TargetIndex(UserStore users, HashAlgorithm algorithm) {
+        this(users, algorithm, targets(users, algorithm, null, 0, users.size()));
+    }
+
+    // Same over the candidates[from, to) subset only (e.g. the users sharing one salt)
+    public TargetIndex(UserStore users, HashAlgorithm algorithm, int[] candidates, int from, int to) {
+        this(users, algorithm, targets(users, algorithm, candidates, from, to));
+    }
+
+    private TargetIndex(UserStore users, HashAlgorithm algorithm, int[] userIds) {
+        this.users = users;
+        this.algorithm = algorithm;
+        this.userIds = userIds;
+        this.next = new int[userIds.length];
+
+        int capacity = Integer.highestOneBit((int) Math.max(16, userIds.length / LOAD_FACTOR)) << 1;
+        this.heads = new int[capacity];
+        this.mask = capacity - 1;
+
+        int distinct = 0;
+        for (int id = 0; id < userIds.length; id++) {
+            int user = userIds[id];
+            long l0 = users.lane(user, 0);
+            long l1 = users.lane(user, 1);
+            long l2 = users.lane(user, 2);
+            long l3 = users.lane(user, 3);
+            int slot = (int) l0 & mask;
+            while (heads[slot] != 0 && !matches(slot, l0, l1, l2, l3)) {
+                slot = (slot + 1) & mask;
+            }
+            if (heads[slot] == 0) {
+                next[id] = NOT_FOUND;
+                distinct++;
+            } else {
+                next[id] = heads[slot] - 1;
+            }
+            heads[slot] = id + 1;
+        }
+        this.distinctDigests = distinct;
+    }
+
+    // First target id whose hash equals the digest, or NOT_FOUND; never allocates
+    public int find(long l0, long l1, long l2, long l3) {
+        int slot = (int) l0 & mask;
+        int head;
+        while ((head = heads[slot]) != 0) {
+            if (matches(slot, l0, l1, l2, l3)) {
+                return head - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return NOT_FOUND;
+    }
+
+    // Next target id sharing the same digest, or NOT_FOUND
+    public int next(int id) {
+        return next[id];
+    }
+
+    // UserStore id of a target
+    public int userId(int id) {
+        return userIds[id];
+    }
+
+    public UserStore users() {
+        return users;
+    }
+
+    public HashAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    // Number of indexed users (valid digest, not cracked when the index was built)
+    public int size() {
+        return userIds.length;
+    }
+
+    public int distinctDigests() {
+        return distinctDigests;
+    }
+
+    // Ids in [from, to) of candidates (or of the whole store when null) that are targets; counted, then filled
+    private static int[] targets(UserStore users, HashAlgorithm algorithm, int[] candidates, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (isTarget(users, algorithm, candidates == null ? i : candidates[i])) {
+                count++;
+            }
+        }
+        int[] ids = new int[count];
+        for (int i = from, t = 0; t < count; i++) {
+            int id = candidates == null ? i : candidates[i];
+            if (isTarget(users, algorithm, id)) {
+                ids[t++] = id;
+            }
+        }
+        return ids;
+    }
+
+    private static boolean isTarget(UserStore users, HashAlgorithm algorithm, int id) {
+        return users.hasDigest(id) && !users.isCracked(id) && users.algorithm(id) == algorithm;
+    }
+
+    // Compares with the digest of the slot's head user; slot must be occupied
+    private boolean matches(int slot, long l0, long l1, long l2, long l3) {
+        int user = userIds[heads[slot] - 1];
+        return users.lane(user, 0) == l0 && users.lane(user, 1) == l1
+                && users.lane(user, 2) == l2 && users.lane(user, 3) == l3;
+    }
+}
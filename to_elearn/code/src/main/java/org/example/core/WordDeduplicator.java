@@ -0,0 +1,340 @@
+// File: src/main/java/org/example/core/WordDeduplicator.java
+package org.example.core;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.example.io.MappedTextFile;
+
+/**
+ * Streaming dedup stage in front of the compact index: turns a dictionary into a WordStore
+ * of its distinct words. When the dictionary's words would not fit in the memory budget, they
+ * are first spilled into hash partitions on disk, so equal words always meet in the same
+ * partition and each partition is deduplicated on its own. A partition is sorted (which is
+ * what makes the store's front coding pay off) and duplicates, now side by side, are dropped
+ * as it is written to the store.
+ * Word ids therefore follow partition, then byte order, not dictionary order.
+ */
+public class WordDeduplicator {
+
+    // Heap per dictionary byte: the bytes plus the start, sort key and order of every ~10-byte
+    // word (16 bytes), rounded up
+    private static final int COST_PER_BYTE = 3;
+    // Partitions of at most ~1 GB keep each arena below the 2 GB array limit
+    private static final long MAX_PARTITION_BYTES = 1L << 30;
+    private static final int MAX_PARTITIONS = 256;
+
+    private final Path tempDir;
+    private final long memoryBudget;
+
+    private long lines;
+    private long inputBytes;
+    private int partitions;
+    private WordStore store;
+
+    /**
+     * @param tempDir where spill partitions go; each is deleted once it has been deduplicated
+     */
+    public WordDeduplicator(Path tempDir) {
+        // Up to a quarter of the heap, like the join's sort buffers
+        this(tempDir, Runtime.getRuntime().maxMemory() / 4);
+    }
+
+    public WordDeduplicator(Path tempDir, long memoryBudget) {
+        this.tempDir = tempDir;
+        this.memoryBudget = Math.max(1 << 20, memoryBudget);
+    }
+
+    // Reads the dictionary once (twice when it spills) and returns the store of its distinct words
+    public WordStore deduplicate(MappedTextFile dictionary) throws IOException {
+        inputBytes = dictionary.size();
+        long cost = dictionary.size() * COST_PER_BYTE;
+        partitions = (int) Math.min(MAX_PARTITIONS, Math.max(
+                (cost + memoryBudget - 1) / memoryBudget,
+                (dictionary.size() + MAX_PARTITION_BYTES - 1) / MAX_PARTITION_BYTES));
+        partitions = Math.max(1, partitions);
+        store = new WordStore();
+        if (partitions == 1) {
+            PartitionWords words = new PartitionWords(dictionary.size());
+            dictionary.forEachLine(words);
+            lines = words.count();
+            words.drainSorted(store);
+        } else {
+            List<Path> spilled = spill(dictionary);
+            try {
+                for (Path partition : spilled) {
+                    MappedTextFile file = MappedTextFile.map(partition);
+                    PartitionWords words = new PartitionWords(file.size());
+                    file.forEachLine(words);
+                    words.drainSorted(store);
+                    Files.delete(partition);
+                }
+            } finally {
+                for (Path partition : spilled) {
+                    Files.deleteIfExists(partition);
+                }
+            }
+        }
+        store.finish();
+        return store;
+    }
+
+    public long lines() {
+        return lines;
+    }
+
+    public int partitions() {
+        return partitions;
+    }
+
+    public String status() {
+        long distinct = store.size();
+        return "Deduplicated " + lines + " dictionary words to " + distinct + " distinct ("
+                + (lines - distinct) + " duplicates"
+                + (partitions > 1 ? ", " + partitions + " spill partitions" : "") + "); word store "
+                + store.bytes() + " bytes for " + inputBytes + " dictionary bytes";
+    }
+
+    // Writes every word into the partition file its hash selects, "word\n" per line
+    private List<Path> spill(MappedTextFile dictionary) throws IOException {
+        Files.createDirectories(tempDir);
+        List<Path> paths = new ArrayList<>();
+        OutputStream[] outputs = new OutputStream[partitions];
+        IOException[] failure = new IOException[1];
+        try {
+            for (int p = 0; p < partitions; p++) {
+                Path path = Files.createTempFile(tempDir, "dedup-", ".part");
+                paths.add(path);
+                outputs[p] = new BufferedOutputStream(Files.newOutputStream(path), 1 << 16);
+            }
+            byte[][] buffer = {new byte[256]};
+            dictionary.forEachLine((region, offset, length) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                if (buffer[0].length < length + 1) {
+                    buffer[0] = new byte[Math.max(length + 1, buffer[0].length * 2)];
+                }
+                byte[] word = buffer[0];
+                region.get(offset, word, 0, length);
+                word[length] = '\n';
+                int partition = (int) ((hash(word, 0, length) >>> 33) % partitions);
+                try {
+                    outputs[partition].write(word, 0, length + 1);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+                lines++;
+            });
+            for (OutputStream output : outputs) {
+                output.close();
+            }
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            return paths;
+        } catch (IOException e) {
+            for (int p = 0; p < partitions; p++) {
+                try {
+                    if (outputs[p] != null) {
+                        outputs[p].close();
+                    }
+                } catch (IOException ignored) {
+                    // Already failing; the partition is deleted below
+                }
+            }
+            for (Path path : paths) {
+                Files.deleteIfExists(path);
+            }
+            throw e;
+        }
+    }
+
+    // FNV-1a over the bytes, finished with the MurmurHash3 mixer so the high bits spread too
+    static long hash(byte[] word, int offset, int length) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ (word[i] & 0xFF)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * The words of one partition, packed back to back in one arena: word i spans
+     * arena[starts[i], starts[i + 1]). Duplicates are kept until the sort puts them side by
+     * side, where the drain drops them; no hash table is needed on top of the sort that
+     * front coding wants anyway.
+     */
+    private static final class PartitionWords implements MappedTextFile.LineVisitor {
+
+        private byte[] arena;
+        private int arenaSize;
+        private int[] starts;
+        private int count;
+
+        // The words never take more than the file's bytes; the word count is a guess of ~10 bytes each
+        PartitionWords(long fileBytes) {
+            arena = new byte[(int) Math.min(Integer.MAX_VALUE - 8, fileBytes)];
+            starts = new int[(int) Math.min(1 << 24, fileBytes / 10 + 16)];
+        }
+
+        @Override
+        public void line(ByteBuffer region, int offset, int length) {
+            if (arenaSize + (long) length > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Dictionary partition exceeds 2 GB");
+            }
+            if (arenaSize + length > arena.length) {
+                arena = Arrays.copyOf(arena, (int) Math.min(Integer.MAX_VALUE - 8,
+                        Math.max(arenaSize + (long) length, arena.length * 2L)));
+            }
+            if (count + 1 == starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+            region.get(offset, arena, arenaSize, length);
+            arenaSize += length;
+            starts[++count] = arenaSize;
+        }
+
+        int count() {
+            return count;
+        }
+
+        // Appends the distinct words to the store in unsigned byte order and releases the arena
+        void drainSorted(WordStore store) {
+            int[] order = new int[count];
+            long[] keys = new long[count];
+            for (int w = 0; w < count; w++) {
+                order[w] = w;
+                keys[w] = key(w, 0);
+            }
+            sort(keys, order, 0, count - 1, 0);
+            keys = null;
+            int previous = -1;
+            for (int w : order) {
+                if (previous < 0 || !Arrays.equals(arena, starts[previous], starts[previous + 1],
+                        arena, starts[w], starts[w + 1])) {
+                    store.add(arena, starts[w], starts[w + 1] - starts[w]);
+                }
+                previous = w;
+            }
+            arena = null;
+            starts = null;
+        }
+
+        // Bytes [depth, depth + 8) of word w as an unsigned big-endian long, zero-padded
+        private long key(int w, int depth) {
+            long key = 0;
+            int from = starts[w] + depth;
+            for (int k = 0, n = Math.min(8, starts[w + 1] - from); k < n; k++) {
+                key |= (arena[from + k] & 0xFFL) << (56 - 8 * k);
+            }
+            return key;
+        }
+
+        /**
+         * Multikey quicksort on 8-byte keys: words in [lo, hi] share their first depth bytes and
+         * keys[] holds the next 8. Each pass splits three ways on the key; the equal part moves on
+         * to the next 8 bytes, so long shared prefixes cost one key per 8 bytes instead of a byte
+         * comparison per word pair. Recursing on the smaller side bounds the stack.
+         */
+        private void sort(long[] keys, int[] order, int lo, int hi, int depth) {
+            while (hi - lo > 16) {
+                long pivot = median(keys[lo], keys[(lo + hi) >>> 1], keys[hi]);
+                int lt = lo;
+                int gt = hi;
+                int i = lo;
+                while (i <= gt) {
+                    int c = Long.compareUnsigned(keys[i], pivot);
+                    if (c < 0) {
+                        swap(keys, order, lt++, i++);
+                    } else if (c > 0) {
+                        swap(keys, order, i, gt--);
+                    } else {
+                        i++;
+                    }
+                }
+                sortDeeper(keys, order, lt, gt, depth + 8);
+                if (lt - lo < hi - gt) {
+                    sort(keys, order, lo, lt - 1, depth);
+                    lo = gt + 1;
+                } else {
+                    sort(keys, order, gt + 1, hi, depth);
+                    hi = lt - 1;
+                }
+            }
+            insertionSort(keys, order, lo, hi);
+        }
+
+        // Words in [lo, hi] share their first depth bytes; sorts them on what follows
+        private void sortDeeper(long[] keys, int[] order, int lo, int hi, int depth) {
+            if (lo >= hi) {
+                return;
+            }
+            boolean longer = false;
+            for (int i = lo; i <= hi; i++) {
+                keys[i] = key(order[i], depth);
+                longer |= starts[order[i] + 1] - starts[order[i]] > depth;
+            }
+            if (longer) {
+                sort(keys, order, lo, hi, depth);
+            } else {
+                // Only trailing zero bytes tell these apart; the byte comparison does
+                insertionSort(keys, order, lo, hi);
+            }
+        }
+
+        private void insertionSort(long[] keys, int[] order, int lo, int hi) {
+            for (int i = lo + 1; i <= hi; i++) {
+                long key = keys[i];
+                int w = order[i];
+                int j = i - 1;
+                while (j >= lo && compare(keys[j], order[j], key, w) > 0) {
+                    keys[j + 1] = keys[j];
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                keys[j + 1] = key;
+                order[j + 1] = w;
+            }
+        }
+
+        // Keys first; the whole words only when they tie
+        private int compare(long keyA, int a, long keyB, int b) {
+            int c = Long.compareUnsigned(keyA, keyB);
+            return c != 0 ? c
+                    : Arrays.compareUnsigned(arena, starts[a], starts[a + 1], arena, starts[b], starts[b + 1]);
+        }
+
+        private static long median(long a, long b, long c) {
+            if (Long.compareUnsigned(a, b) > 0) {
+                long t = a;
+                a = b;
+                b = t;
+            }
+            if (Long.compareUnsigned(b, c) > 0) {
+                b = Long.compareUnsigned(a, c) > 0 ? a : c;
+            }
+            return b;
+        }
+
+        private static void swap(long[] keys, int[] order, int i, int j) {
+            long key = keys[i];
+            keys[i] = keys[j];
+            keys[j] = key;
+            int w = order[i];
+            order[i] = order[j];
+            order[j] = w;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+// File: src/main/java/org/example/core/WordIdIndex.java
+package org.example.core;
+
+import org.example.model.UserStore;
+
+/**
+ * Digest index over a WordStore: the tables hold raw digests and word ids only, 36 bytes
+ * per slot and no plaintext, and a word is decoded from the front-coded store only on a hit.
+ * Sharded by the top bits of lane 0 like ShardedDigestIndex, so every shard is built by a
+ * single thread without locks.
+ */
+public class WordIdIndex implements PasswordIndex {
+
+    private final WordStore store;
+    private final Table[] shards;
+    private final int shift;
+
+    WordIdIndex(WordStore store, Table[] shards) {
+        this.store = store;
+        this.shards = shards;
+        this.shift = ShardedDigestIndex.shiftFor(shards.length);
+    }
+
+    @Override
+    public String lookup(UserStore users, int id) {
+        if (!users.hasDigest(id)) {
+            return null;
+        }
+        long l0 = users.lane(id, 0);
+        int wordId = shards[ShardedDigestIndex.shardOf(l0, shift, shards.length)]
+                .find(l0, users.lane(id, 1), users.lane(id, 2), users.lane(id, 3));
+        return wordId == DigestIndex.NOT_FOUND ? null : store.word(wordId);
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public long size() {
+        long total = 0;
+        for (Table shard : shards) {
+            total += shard.size;
+        }
+        return total;
+    }
+
+    /**
+     * One shard: open addressing on the low bits of lane 0, DigestIndex.LANES longs of key and
+     * one word id + 1 (0 marks an empty slot) per slot. Single-threaded writes.
+     */
+    static final class Table {
+        private long[] keys;
+        private int[] ids;
+        private int mask;
+        private int size;
+
+        Table(int expectedEntries) {
+            allocate(DigestIndex.tableSizeFor(expectedEntries));
+        }
+
+        // First id wins, as in DigestIndex.putIfAbsent
+        void putIfAbsent(long l0, long l1, long l2, long l3, int wordId) {
+            int slot = (int) l0 & mask;
+            while (ids[slot] != 0) {
+                if (matches(slot, l0, l1, l2, l3)) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            int base = slot * DigestIndex.LANES;
+            keys[base] = l0;
+            keys[base + 1] = l1;
+            keys[base + 2] = l2;
+            keys[base + 3] = l3;
+            ids[slot] = wordId + 1;
+            if (++size > ids.length * DigestIndex.LOAD_FACTOR) {
+                rehash();
+            }
+        }
+
+        // The word id of this digest, or DigestIndex.NOT_FOUND
+        int find(long l0, long l1, long l2, long l3) {
+            int slot = (int) l0 & mask;
+            int id;
+            while ((id = ids[slot]) != 0) {
+                if (matches(slot, l0, l1, l2, l3)) {
+                    return id - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return DigestIndex.NOT_FOUND;
+        }
+
+        private boolean matches(int slot, long l0, long l1, long l2, long l3) {
+            int base = slot * DigestIndex.LANES;
+            return keys[base] == l0 && keys[base + 1] == l1 && keys[base + 2] == l2 && keys[base + 3] == l3;
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity * DigestIndex.LANES];
+            ids = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        private void rehash() {
+            long[] oldKeys = keys;
+            int[] oldIds = ids;
+            allocate(DigestIndex.grownCapacity(oldIds.length));
+            for (int slot = 0; slot < oldIds.length; slot++) {
+                if (oldIds[slot] == 0) {
+                    continue;
+                }
+                int base = slot * DigestIndex.LANES;
+                int target = (int) oldKeys[base] & mask;
+                while (ids[target] != 0) {
+                    target = (target + 1) & mask;
+                }
+                System.arraycopy(oldKeys, base, keys, target * DigestIndex.LANES, DigestIndex.LANES);
+                ids[target] = oldIds[slot];
+            }
+        }
+    }
+}
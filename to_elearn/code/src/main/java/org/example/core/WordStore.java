@@ -0,0 +1,190 @@
+// File: src/main/java/org/example/core/WordStore.java
+package org.example.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Front-coded (prefix-compressed) store of distinct dictionary words, addressed by id.
+ * Words go in blocks of BLOCK: the first word of a block is stored whole as
+ * [varint length][bytes], each following one as [varint shared prefix][varint suffix
+ * length][suffix], so sorted runs of similar words cost little more than their suffixes.
+ * Random access decodes at most one block; a sequential walk (forEach) decodes each
+ * word once from the previous one.
+ * Blocks live in paged byte arrays and never straddle a page, so the store is not
+ * limited to 2 GB and never copies on growth. Writes are single-threaded, reads are
+ * safe once building has finished.
+ */
+public class WordStore {
+
+    static final int BLOCK = 16;
+    private static final int PAGE_BYTES = 1 << 26;
+
+    // Receives words in id order; word[0, length) is only valid during the call
+    @FunctionalInterface
+    public interface WordVisitor {
+        void word(int id, byte[] word, int length);
+    }
+
+    private final List<byte[]> pages = new ArrayList<>();
+    private long[] blockStarts = new long[1024];   // page << 32 | offset in page
+    private int size;
+    private long bytes;
+
+    // The block being filled, encoded here before it is copied into a page
+    private byte[] pending = new byte[4096];
+    private int pendingSize;
+    private byte[] previous = new byte[256];
+    private int previousLength;
+    private int pageUsed;
+
+    /**
+     * Appends a word; sorted input compresses best.
+     * @return the word's id
+     */
+    public int add(byte[] word, int offset, int length) {
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Word store is full");
+        }
+        int shared = 0;
+        if (size % BLOCK != 0) {
+            int limit = Math.min(previousLength, length);
+            int mismatch = Arrays.mismatch(previous, 0, limit, word, offset, offset + limit);
+            shared = mismatch < 0 ? limit : mismatch;
+        }
+        ensurePending(pendingSize + 10 + length);
+        if (size % BLOCK != 0) {
+            pendingSize = putVarint(pending, pendingSize, shared);
+        }
+        pendingSize = putVarint(pending, pendingSize, length - shared);
+        System.arraycopy(word, offset + shared, pending, pendingSize, length - shared);
+        pendingSize += length - shared;
+
+        if (previous.length < length) {
+            previous = new byte[Math.max(length, previous.length * 2)];
+        }
+        System.arraycopy(word, offset, previous, 0, length);
+        previousLength = length;
+        if (++size % BLOCK == 0) {
+            sealBlock();
+        }
+        return size - 1;
+    }
+
+    // Writes out a partly filled last block; no add() afterwards
+    public void finish() {
+        if (size % BLOCK != 0) {
+            sealBlock();
+        }
+        pending = null;
+        previous = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Encoded bytes over all blocks
+    public long bytes() {
+        return bytes;
+    }
+
+    // Decodes one word: walks its block from the start
+    public String word(int id) {
+        if (id < 0 || id >= size) {
+            throw new IndexOutOfBoundsException("Word id " + id + " of " + size);
+        }
+        byte[] buffer = new byte[64];
+        int length = 0;
+        long start = blockStarts[id / BLOCK];
+        byte[] page = pages.get((int) (start >>> 32));
+        int[] pos = {(int) start};
+        for (int i = 0; i <= id % BLOCK; i++) {
+            int shared = i == 0 ? 0 : getVarint(page, pos);
+            int suffix = getVarint(page, pos);
+            length = shared + suffix;
+            if (buffer.length < length) {
+                buffer = Arrays.copyOf(buffer, Math.max(length, buffer.length * 2));
+            }
+            System.arraycopy(page, pos[0], buffer, shared, suffix);
+            pos[0] += suffix;
+        }
+        return new String(buffer, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Visits the words with ids in [fromId, toId) in order, decoding each from the one before.
+     * @param fromId must be a multiple of BLOCK
+     */
+    public void forEach(int fromId, int toId, WordVisitor visitor) {
+        byte[] buffer = new byte[256];
+        int length = 0;
+        for (int block = fromId / BLOCK; block * BLOCK < toId; block++) {
+            long start = blockStarts[block];
+            byte[] page = pages.get((int) (start >>> 32));
+            int[] pos = {(int) start};
+            int end = Math.min(toId, (block + 1) * BLOCK);
+            for (int id = block * BLOCK; id < end; id++) {
+                int shared = id % BLOCK == 0 ? 0 : getVarint(page, pos);
+                int suffix = getVarint(page, pos);
+                length = shared + suffix;
+                if (buffer.length < length) {
+                    buffer = Arrays.copyOf(buffer, Math.max(length, buffer.length * 2));
+                }
+                System.arraycopy(page, pos[0], buffer, shared, suffix);
+                pos[0] += suffix;
+                visitor.word(id, buffer, length);
+            }
+        }
+    }
+
+    private void sealBlock() {
+        if (pages.isEmpty() || pageUsed + pendingSize > pages.get(pages.size() - 1).length) {
+            // Pages double up to PAGE_BYTES, so small stores stay small; a block bigger than a
+            // page gets a page of its own size
+            long size = Math.min(PAGE_BYTES, Math.max(1 << 16, bytes));
+            pages.add(new byte[(int) Math.max(size, pendingSize)]);
+            pageUsed = 0;
+        }
+        byte[] page = pages.get(pages.size() - 1);
+        System.arraycopy(pending, 0, page, pageUsed, pendingSize);
+        int block = (size - 1) / BLOCK;
+        if (block == blockStarts.length) {
+            blockStarts = Arrays.copyOf(blockStarts, block * 2);
+        }
+        blockStarts[block] = (long) (pages.size() - 1) << 32 | pageUsed;
+        pageUsed += pendingSize;
+        bytes += pendingSize;
+        pendingSize = 0;
+    }
+
+    private void ensurePending(int needed) {
+        if (needed > pending.length) {
+            pending = Arrays.copyOf(pending, Math.max(needed, pending.length * 2));
+        }
+    }
+
+    private static int putVarint(byte[] target, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            target[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[pos++] = (byte) value;
+        return pos;
+    }
+
+    // Reads a varint at pos[0] and advances it
+    private static int getVarint(byte[] source, int[] pos) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = source[pos[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
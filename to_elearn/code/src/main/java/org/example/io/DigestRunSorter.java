@@ -0,0 +1,302 @@
+// File: src/main/java/org/example/io/DigestRunSorter.java
+package org.example.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.zip.CRC32C;
+
+/**
+ * External sort for (SHA-256 digest, long payload) records, 40 bytes each on disk:
+ * four big-endian digest lanes followed by the payload (e.g. a file offset).
+ * Records are ordered by the digest as unsigned 256-bit number, then by payload.
+ *
+ * One sorter is owned by one thread: add() buffers records in a flat long[], and a
+ * full buffer is sorted and spilled as a run file. merge() k-way merges any number
+ * of sorted sources sequentially, so memory stays bounded by the run size; a Cursor
+ * walks the same merged order record by record, duplicates included.
+ */
+public class DigestRunSorter implements AutoCloseable {
+
+    public static final int RECORD_BYTES = 40;
+    static final int STRIDE = 5; // longs per record in memory
+    private static final int IO_BUFFER_BYTES = RECORD_BYTES * 16 * 1024;
+
+    private final Path tempDir;
+    private long[] records;
+    private final int capacity;
+    private final List<Path> runs = new ArrayList<>();
+    private int count;
+
+    public DigestRunSorter(Path tempDir, int runRecords) {
+        this.tempDir = tempDir;
+        this.capacity = Math.max(1, runRecords);
+        // Grows on demand up to the run size, so small inputs stay small
+        this.records = new long[Math.min(capacity, 1 << 16) * STRIDE];
+    }
+
+    public void add(long l0, long l1, long l2, long l3, long payload) throws IOException {
+        if (count == capacity) {
+            spill();
+        } else if (count * STRIDE == records.length) {
+            records = Arrays.copyOf(records, Math.min(capacity, count * 2) * STRIDE);
+        }
+        int base = count * STRIDE;
+        records[base] = l0;
+        records[base + 1] = l1;
+        records[base + 2] = l2;
+        records[base + 3] = l3;
+        records[base + 4] = payload;
+        count++;
+    }
+
+    // Sorts and writes whatever is buffered and frees the buffer; no add() afterwards
+    public List<Path> finish() throws IOException {
+        if (count > 0) {
+            spill();
+        }
+        records = null;
+        return runs;
+    }
+
+    public List<Path> runs() {
+        return runs;
+    }
+
+    // Deletes the run files (after they have been merged)
+    @Override
+    public void close() throws IOException {
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+    }
+
+    private void spill() throws IOException {
+        sort(records, 0, count - 1);
+        Path run = Files.createTempFile(tempDir, "digest-run-", ".bin");
+        try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+            for (int i = 0; i < count * STRIDE; i++) {
+                if (!buffer.hasRemaining()) {
+                    writeFully(channel, buffer);
+                }
+                buffer.putLong(records[i]);
+            }
+            writeFully(channel, buffer);
+        }
+        runs.add(run);
+        count = 0;
+    }
+
+    /**
+     * K-way merges sorted record sources into out, keeping only the first record of each
+     * digest (the smallest payload). Updates crc with every byte written.
+     * @return the number of records written
+     */
+    public static long merge(List<Source> sources, FileChannel out, CRC32C crc) throws IOException {
+        Cursor cursor = new Cursor(sources);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+        long written = 0;
+        boolean havePrevious = false;
+        long p0 = 0, p1 = 0, p2 = 0, p3 = 0;
+        while (cursor.next()) {
+            long[] r = cursor.top.current;
+            if (!havePrevious || r[0] != p0 || r[1] != p1 || r[2] != p2 || r[3] != p3) {
+                if (buffer.remaining() < RECORD_BYTES) {
+                    flush(out, buffer, crc);
+                }
+                for (int i = 0; i < STRIDE; i++) {
+                    buffer.putLong(r[i]);
+                }
+                p0 = r[0];
+                p1 = r[1];
+                p2 = r[2];
+                p3 = r[3];
+                havePrevious = true;
+                written++;
+            }
+        }
+        flush(out, buffer, crc);
+        return written;
+    }
+
+    // K-way merge of sorted sources, one record at a time in order; keeps every record
+    public static final class Cursor {
+        private final PriorityQueue<Source> heap;
+        private Source top;
+
+        public Cursor(List<Source> sources) throws IOException {
+            heap = new PriorityQueue<>(Math.max(1, sources.size()), Source::compareTo);
+            for (Source source : sources) {
+                if (source.advance()) {
+                    heap.add(source);
+                }
+            }
+        }
+
+        // Moves to the next record; false once every source is exhausted
+        public boolean next() throws IOException {
+            if (top != null && top.advance()) {
+                heap.add(top);
+            }
+            top = heap.poll();
+            return top != null;
+        }
+
+        // Digest lane 0-3 of the current record
+        public long lane(int lane) {
+            return top.current[lane];
+        }
+
+        public long payload() {
+            return top.current[STRIDE - 1];
+        }
+
+        // Orders the current records of two cursors by digest only (unsigned, lane by lane)
+        public int compareDigest(Cursor other) {
+            for (int k = 0; k < STRIDE - 1; k++) {
+                int c = Long.compareUnsigned(top.current[k], other.top.current[k]);
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return 0;
+        }
+    }
+
+    // Sequential reader over a sorted run (or a sorted section of a larger file)
+    public static final class Source {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES);
+        private long position;
+        private final long end;
+        final long[] current = new long[STRIDE];
+
+        public Source(FileChannel channel, long from, long to) {
+            this.channel = channel;
+            this.position = from;
+            this.end = to;
+            buffer.limit(0);
+        }
+
+        boolean advance() throws IOException {
+            if (buffer.remaining() < RECORD_BYTES) {
+                if (position >= end) {
+                    return false;
+                }
+                buffer.compact();
+                int want = (int) Math.min(buffer.remaining(), end - position);
+                buffer.limit(buffer.position() + want);
+                while (buffer.hasRemaining()) {
+                    int read = channel.read(buffer, position);
+                    if (read < 0) {
+                        throw new IOException("Unexpected end of digest records");
+                    }
+                    position += read;
+                }
+                buffer.flip();
+                if (buffer.remaining() < RECORD_BYTES) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < STRIDE; i++) {
+                current[i] = buffer.getLong();
+            }
+            return true;
+        }
+
+        private int compareTo(Source other) {
+            return compare(current, 0, other.current, 0);
+        }
+    }
+
+    // Unsigned lexicographic order on the four lanes, then the payload
+    static int compare(long[] a, int i, long[] b, int j) {
+        for (int k = 0; k < STRIDE; k++) {
+            int c = k < STRIDE - 1 ? Long.compareUnsigned(a[i + k], b[j + k]) : Long.compare(a[i + k], b[j + k]);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return 0;
+    }
+
+    // In-place quicksort of STRIDE-long records; digests are uniform so median-of-three is enough
+    private static void sort(long[] a, int lo, int hi) {
+        while (hi - lo > 16) {
+            int mid = (lo + hi) >>> 1;
+            if (compare(a, mid * STRIDE, a, lo * STRIDE) < 0) {
+                swap(a, mid, lo);
+            }
+            if (compare(a, hi * STRIDE, a, lo * STRIDE) < 0) {
+                swap(a, hi, lo);
+            }
+            if (compare(a, hi * STRIDE, a, mid * STRIDE) < 0) {
+                swap(a, hi, mid);
+            }
+            long[] pivot = new long[STRIDE];
+            System.arraycopy(a, mid * STRIDE, pivot, 0, STRIDE);
+
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (compare(a, i * STRIDE, pivot, 0) < 0) {
+                    i++;
+                }
+                while (compare(a, j * STRIDE, pivot, 0) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(a, i++, j--);
+                }
+            }
+            // Recurse into the smaller half, loop on the larger one
+            if (j - lo < hi - i) {
+                sort(a, lo, j);
+                lo = i;
+            } else {
+                sort(a, i, hi);
+                hi = j;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            for (int j = i; j > lo && compare(a, j * STRIDE, a, (j - 1) * STRIDE) < 0; j--) {
+                swap(a, j, j - 1);
+            }
+        }
+    }
+
+    private static void swap(long[] a, int x, int y) {
+        int bx = x * STRIDE;
+        int by = y * STRIDE;
+        for (int k = 0; k < STRIDE; k++) {
+            long t = a[bx + k];
+            a[bx + k] = a[by + k];
+            a[by + k] = t;
+        }
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buffer, CRC32C crc) throws IOException {
+        buffer.flip();
+        crc.update(buffer.duplicate());
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -1,30 +1,140 @@
 // File: src/main/java/org/example/io/HashManager.java
 package org.example.io;
 
-import org.example.model.User;
+import org.example.model.SaltTable;
+import org.example.model.UserStore;
+import org.example.util.HashAlgorithm;
+import org.example.util.Hasher;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
 import java.nio.file.Paths;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
 public class HashManager {
 
-    // Using Map in the signature for flexibility instead of concrete HashMap
-    // Using Streams API to load and transform data concisely 
-    public Map<String, User> loadUsers(String filename) throws IOException {
-        List<String> lines = Files.readAllLines(Paths.get(filename));
-        // Pre-size the map to avoid resizing
-        int expectedSize = (int)(lines.size() / 0.75) + 1;
-        return lines.stream()
-                .map(line -> line.split(","))
-                .filter(parts -> parts.length >= 2)
-                .collect(Collectors.toMap(
-                        parts -> parts[0], 
-                        parts -> new User(parts[0], parts[1].trim()),
-                        (existing, replacement) -> existing,
-                        () -> new java.util.concurrent.ConcurrentHashMap<>(expectedSize)
-                ));
+    // Receives the targets of a users file one line at a time
+    @FunctionalInterface
+    public interface TargetVisitor {
+        // line[0, nameLength) is the username, line[hashOffset, +hashLength) the trimmed hash;
+        // algorithm is null if unknown and lineOffset is where the line starts in the file
+        void target(byte[] line, int nameLength, int hashOffset, int hashLength, HashAlgorithm algorithm,
+                long lineOffset);
     }
-}
\ No newline at end of file
+
+    // Scans the memory-mapped file directly: no List<String> of lines, no split(",")
+    // Users go into a columnar store instead of a Map of per-user objects
+    public UserStore loadUsers(String filename) throws IOException {
+        return loadUsers(filename, null);
+    }
+
+    // Salted variant: with a SaltTable the lines are "username,salt,hash[,algorithm]" and
+    // each user's salt is interned into the table
+    public UserStore loadUsers(String filename, SaltTable salts) throws IOException {
+        MappedTextFile file = MappedTextFile.map(Paths.get(filename));
+        // Pre-size the columns (~80 bytes per "user,sha256hex" line); everything but the hex
+        // digest is budgeted for names so the arena rarely has to grow
+        int expectedSize = (int) Math.min(Integer.MAX_VALUE / UserStore.LANES, file.size() / 80 + 1);
+        long expectedNameBytes = Math.max(0, file.size() - (long) expectedSize * Hasher.SHA256_BYTES * 2);
+        UserStore users = new UserStore(expectedSize, (int) Math.min(Integer.MAX_VALUE - 8, expectedNameBytes));
+        UserLineParser parser = new UserLineParser(users, salts, null);
+        file.forEachLine(parser);
+        return users;
+    }
+
+    // Out-of-core alternative to loadUsers for unsalted files: nothing is kept, every line is
+    // handed to visitor as it is parsed, so duplicate usernames are not collapsed here
+    public void scanTargets(MappedTextFile file, TargetVisitor visitor) {
+        UserLineParser parser = new UserLineParser(null, null, visitor);
+        for (int r = 0; r < file.regionCount(); r++) {
+            parser.regionStart = file.regionStart(r);
+            MappedTextFile.forEachLine(file.region(r), 0, file.region(r).limit(), parser);
+        }
+    }
+
+    // Parses "username,[salt,]hash[,algorithm]" slices into a UserStore (the first entry for a duplicate
+    // username wins) or a TargetVisitor.
+    // Without the algorithm column it is told by the hash length.
+    private static final class UserLineParser implements MappedTextFile.LineVisitor {
+        private final UserStore users;
+        private final SaltTable salts;
+        private final TargetVisitor targets;
+        // Absolute offset of the region being parsed, for TargetVisitor
+        private long regionStart;
+        private byte[] line = new byte[128];
+
+        UserLineParser(UserStore users, SaltTable salts, TargetVisitor targets) {
+            this.users = users;
+            this.salts = salts;
+            this.targets = targets;
+        }
+
+        @Override
+        public void line(ByteBuffer region, int offset, int length) {
+            int comma = MappedTextFile.indexOf(region, offset, offset + length, (byte) ',');
+            if (comma < 0) {
+                return;
+            }
+            if (line.length < length) {
+                line = new byte[Math.max(length, line.length * 2)];
+            }
+            region.get(offset, line, 0, length);
+
+            int nameLength = comma - offset;
+            int hashStart = nameLength + 1;
+            int saltStart = hashStart;
+            if (salts != null) {
+                // The salt is taken verbatim, it is hashed byte for byte
+                while (hashStart < length && line[hashStart] != ',') {
+                    hashStart++;
+                }
+                if (hashStart == length) {
+                    return;
+                }
+                hashStart++;
+            }
+            int saltLength = hashStart - 1 - saltStart;
+            int hashEnd = hashStart;
+            while (hashEnd < length && line[hashEnd] != ',') {
+                hashEnd++;
+            }
+            // trim() the hash column
+            while (hashStart < hashEnd && (line[hashStart] & 0xFF) <= ' ') {
+                hashStart++;
+            }
+            while (hashEnd > hashStart && (line[hashEnd - 1] & 0xFF) <= ' ') {
+                hashEnd--;
+            }
+            if (hashStart == hashEnd) {
+                return;
+            }
+            HashAlgorithm algorithm = algorithm(hashStart, hashEnd, length);
+            if (targets != null) {
+                targets.target(line, nameLength, hashStart, hashEnd - hashStart, algorithm, regionStart + offset);
+            } else if (users.add(line, 0, nameLength, hashStart, hashEnd - hashStart, algorithm) && salts != null) {
+                salts.assign(users.size() - 1, salts.intern(line, saltStart, saltLength));
+            }
+        }
+
+        // Algorithm from the optional third column, else from the digest length; null if unknown
+        private HashAlgorithm algorithm(int hashStart, int hashEnd, int length) {
+            int from = hashEnd;
+            while (from < length && line[from] != ',') {
+                from++;
+            }
+            from++;
+            int to = from;
+            while (to < length && line[to] != ',') {
+                to++;
+            }
+            while (from < to && (line[from] & 0xFF) <= ' ') {
+                from++;
+            }
+            while (to > from && (line[to - 1] & 0xFF) <= ' ') {
+                to--;
+            }
+            if (from >= to) {
+                return HashAlgorithm.ofHexLength(hashEnd - hashStart);
+            }
+            return HashAlgorithm.parse(line, from, to - from);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+// File: src/main/java/org/example/io/MappedTextFile.java
+package org.example.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A newline-delimited text file mapped read-only into memory.
+ * The file is split into regions of at most 1 GB, each cut just after a '\n',
+ * so no line ever straddles two MappedByteBuffers and files larger than 2 GB work.
+ * Nothing is copied onto the heap: callers get (region, offset, length) slices.
+ */
+public class MappedTextFile {
+
+    static final long MAX_REGION_BYTES = 1L << 30;
+
+    // A byte range [from, to) of one region that starts and ends on line boundaries
+    public record Chunk(int region, int from, int to) {
+        public long length() {
+            return to - from;
+        }
+    }
+
+    // Receives one line at a time; the slice excludes the line terminator
+    @FunctionalInterface
+    public interface LineVisitor {
+        void line(ByteBuffer region, int offset, int length);
+    }
+
+    private final Path path;
+    private final long size;
+    private final MappedByteBuffer[] regions;
+    private final long[] regionStarts;
+
+    private MappedTextFile(Path path, long size, MappedByteBuffer[] regions, long[] regionStarts) {
+        this.path = path;
+        this.size = size;
+        this.regions = regions;
+        this.regionStarts = regionStarts;
+    }
+
+    public static MappedTextFile map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<MappedByteBuffer> regions = new ArrayList<>();
+            List<Long> starts = new ArrayList<>();
+
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(MAX_REGION_BYTES, size - position);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                if (position + length < size) {
+                    // Cut the region after its last newline so lines stay whole
+                    int cut = lastIndexOf(region, (int) length, (byte) '\n') + 1;
+                    if (cut == 0) {
+                        throw new IOException("Line longer than " + MAX_REGION_BYTES + " bytes in " + path);
+                    }
+                    region = region.slice(0, cut);
+                    length = cut;
+                }
+                // Native order for indexOf's word-at-a-time scan
+                region.order(ByteOrder.nativeOrder());
+                regions.add(region);
+                starts.add(position);
+                position += length;
+            }
+
+            long[] regionStarts = starts.stream().mapToLong(Long::longValue).toArray();
+            return new MappedTextFile(path, size, regions.toArray(new MappedByteBuffer[0]), regionStarts);
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int regionCount() {
+        return regions.length;
+    }
+
+    public ByteBuffer region(int index) {
+        return regions[index];
+    }
+
+    // Absolute file offset of the first byte of a region
+    public long regionStart(int index) {
+        return regionStarts[index];
+    }
+
+    // Index of the region containing an absolute file offset (0 <= offset < size)
+    public int regionOf(long offset) {
+        int lo = 0;
+        int hi = regions.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (regionStarts[mid] <= offset) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * The line starting at an absolute offset, without its terminator (and a trailing "\r").
+     * @return the line's bytes, or null if offset is outside the file
+     */
+    public byte[] lineAt(long offset) {
+        if (offset < 0 || offset >= size) {
+            return null;
+        }
+        int r = regionOf(offset);
+        ByteBuffer region = regions[r];
+        int from = (int) (offset - regionStarts[r]);
+        int newline = indexOf(region, from, region.limit(), (byte) '\n');
+        int end = newline < 0 ? region.limit() : newline;
+        if (end > from && region.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] line = new byte[end - from];
+        region.get(from, line, 0, line.length);
+        return line;
+    }
+
+    // Offset just past the last '\n', i.e. where a trailing line without a terminator starts
+    public long completeLinesEnd() {
+        for (int r = regions.length - 1; r >= 0; r--) {
+            int last = lastIndexOf(regions[r], regions[r].limit(), (byte) '\n');
+            if (last >= 0) {
+                return regionStarts[r] + last + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Splits the file into roughly equal line-aligned chunks for parallel processing.
+     * Chunks never cross a region boundary and are returned in file order.
+     */
+    public List<Chunk> split(int targetChunks) {
+        return split(0, targetChunks);
+    }
+
+    // Same as split(int) but only covers [fromOffset, size); fromOffset must be a line start
+    public List<Chunk> split(long fromOffset, int targetChunks) {
+        long chunkBytes = Math.max(1, (size - fromOffset + targetChunks - 1) / Math.max(1, targetChunks));
+        List<Chunk> chunks = new ArrayList<>();
+        for (int r = fromOffset >= size ? regions.length : regionOf(fromOffset); r < regions.length; r++) {
+            ByteBuffer region = regions[r];
+            int limit = region.limit();
+            int from = (int) Math.max(0, fromOffset - regionStarts[r]);
+            while (from < limit) {
+                int to = nextLineStart(region, (int) Math.min(limit, from + chunkBytes));
+                chunks.add(new Chunk(r, from, to));
+                from = to;
+            }
+        }
+        return chunks;
+    }
+
+    public void forEachLine(Chunk chunk, LineVisitor visitor) {
+        forEachLine(regions[chunk.region()], chunk.from(), chunk.to(), visitor);
+    }
+
+    public void forEachLine(LineVisitor visitor) {
+        for (ByteBuffer region : regions) {
+            forEachLine(region, 0, region.limit(), visitor);
+        }
+    }
+
+    /**
+     * Visits every line that starts in [from, to) of a region; from must be a line start.
+     * Mirrors Files.readAllLines: a trailing "\r" is stripped and a final newline
+     * does not produce an extra empty line.
+     */
+    public static void forEachLine(ByteBuffer region, int from, int to, LineVisitor visitor) {
+        int limit = region.limit();
+        int position = from;
+        while (position < to) {
+            int newline = indexOf(region, position, limit, (byte) '\n');
+            int end = newline < 0 ? limit : newline;
+            int length = end - position;
+            if (length > 0 && region.get(end - 1) == '\r') {
+                length--;
+            }
+            visitor.line(region, position, length);
+            position = end + 1;
+        }
+    }
+
+    // Index of the first line start at or after position (position itself if it already is one)
+    public static int nextLineStart(ByteBuffer region, int position) {
+        if (position <= 0) {
+            return 0;
+        }
+        int newline = indexOf(region, position - 1, region.limit(), (byte) '\n');
+        return newline < 0 ? region.limit() : newline + 1;
+    }
+
+    /**
+     * First index of target in [from, to), or -1. Scans 8 bytes per step using the
+     * classic "has zero byte" bit trick; the lowest set byte is only exact on
+     * little-endian words, so big-endian views are byte-swapped first.
+     */
+    public static int indexOf(ByteBuffer buffer, int from, int to, byte target) {
+        long pattern = (target & 0xFFL) * 0x0101010101010101L;
+        boolean bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+        int i = from;
+        for (; i + 8 <= to; i += 8) {
+            long raw = buffer.getLong(i);
+            long word = (bigEndian ? Long.reverseBytes(raw) : raw) ^ pattern;
+            long found = (word - 0x0101010101010101L) & ~word & 0x8080808080808080L;
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < to; i++) {
+            if (buffer.get(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(ByteBuffer buffer, int to, byte target) {
+        for (int i = to - 1; i >= 0; i--) {
+            if (buffer.get(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -2,26 +2,251 @@
 package org.example.io;
 
 import org.example.model.CrackedCredential;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
+
 import java.io.IOException;
-import java.util.concurrent.ConcurrentLinkedQueue;
-
-public class OutputWriter {
-    public static void writeCrackedPasswordsToCSV(String filePath, ConcurrentLinkedQueue<CrackedCredential> crackedQueue) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            writer.write("user_name,hashed_password,plain_password\n");
-
-            for (CrackedCredential credential : crackedQueue) {
-                String line = String.format("%s,%s,%s\n",
-                        credential.username(),
-                        credential.hashedPassword(),
-                        credential.plainPassword());
-                writer.write(line);
-            }
-            System.out.println("\nCracked password details have been written to " + filePath);
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous CSV writer stage. Workers hand found credentials to a bounded queue;
+ * a single writer thread drains them in batches, encodes the lines straight into a
+ * reused byte buffer and writes it through a FileChannel, so output overlaps with the
+ * attack and every completed batch is in the file if the process dies mid-run.
+ * close() drains the rest and, when sorted output was requested, rewrites the file
+ * in line order so runs can be diffed against an expected out.txt.
+ */
+public class OutputWriter implements Consumer<CrackedCredential>, AutoCloseable {
+
+    static final String HEADER = "user_name,hashed_password,plain_password\n";
+
+    private static final int QUEUE_CAPACITY = 16 * 1024;
+    private static final int MAX_BATCH = 4096;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    // End-of-stream marker for the writer thread
+    private static final CrackedCredential POISON = new CrackedCredential(null, null, null);
+
+    private final Path path;
+    private final boolean sorted;
+    private final FileChannel channel;
+    private final BlockingQueue<CrackedCredential> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private volatile IOException failure;
+    private long written;
+    private boolean closed;
+
+    /**
+     * Creates (or truncates) the output file, writes the CSV header and starts the writer thread.
+     * @param sorted rewrite the file with its lines sorted when closed
+     */
+    public OutputWriter(Path path, boolean sorted) throws IOException {
+        this(path, sorted, Thread.ofPlatform().name("output-writer").daemon().factory());
+    }
+
+    // threads creates the writer thread, e.g. a virtual one
+    public OutputWriter(Path path, boolean sorted, ThreadFactory threads) throws IOException {
+        this.path = path;
+        this.sorted = sorted;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            buffer.put(HEADER.getBytes(StandardCharsets.US_ASCII)).flip();
+            writeFully(buffer);
         } catch (IOException e) {
-            System.err.println("Error: Could not write to CSV file: " + e.getMessage());
+            channel.close();
+            throw e;
+        }
+        this.writer = threads.newThread(this::drain);
+        this.writer.start();
+    }
+
+    // Called by the workers; blocks only when the writer has fallen a full queue behind
+    @Override
+    public void accept(CrackedCredential credential) {
+        try {
+            queue.put(credential);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing a result", e);
+        }
+    }
+
+    /**
+     * Reads the credentials of an existing output file, e.g. one left by an interrupted run.
+     * A torn last line is ignored; a missing file yields an empty list.
+     */
+    public static List<CrackedCredential> read(Path path) throws IOException {
+        List<CrackedCredential> credentials = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return credentials;
+        }
+        String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        content = content.substring(0, content.lastIndexOf('\n') + 1);
+        for (String line : content.split("\n")) {
+            int first = line.indexOf(',');
+            int second = first < 0 ? -1 : line.indexOf(',', first + 1);
+            if (second < 0 || (line + "\n").equals(HEADER)) {
+                continue;
+            }
+            credentials.add(new CrackedCredential(line.substring(0, first),
+                    line.substring(first + 1, second), line.substring(second + 1)));
+        }
+        return credentials;
+    }
+
+    // Credentials written so far; final once close() has returned
+    public long written() {
+        return written;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Flushes the remaining results, closes the file and applies the sort if requested.
+     * @throws IOException if any write failed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            queue.put(POISON);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while flushing " + path, e);
+        } finally {
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
         }
+        if (sorted) {
+            sortLines(path);
+        }
+    }
+
+    private void drain() {
+        List<CrackedCredential> batch = new ArrayList<>(MAX_BATCH);
+        try {
+            while (true) {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+                boolean end = false;
+                buffer.clear();
+                for (CrackedCredential credential : batch) {
+                    if (credential == POISON) {
+                        end = true;
+                    } else if (failure == null) {
+                        encode(credential);
+                    }
+                }
+                batch.clear();
+                if (failure == null) {
+                    try {
+                        buffer.flip();
+                        writeFully(buffer);
+                    } catch (IOException e) {
+                        // Keep draining so the workers never block on a full queue
+                        failure = e;
+                    }
+                }
+                if (end) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void encode(CrackedCredential credential) {
+        putUtf8(credential.username());
+        put((byte) ',');
+        putUtf8(credential.hashedPassword());
+        put((byte) ',');
+        putUtf8(credential.plainPassword());
+        put((byte) '\n');
+        written++;
+    }
+
+    // ASCII fast path without an intermediate byte[]; anything else goes through the encoder
+    private void putUtf8(String value) {
+        int length = value.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                byte[] bytes = value.substring(i).getBytes(StandardCharsets.UTF_8);
+                ensureCapacity(bytes.length);
+                buffer.put(bytes);
+                return;
+            }
+            buffer.put((byte) c);
+        }
+    }
+
+    private void put(byte b) {
+        ensureCapacity(1);
+        buffer.put(b);
+    }
+
+    // Flushes a full buffer, or grows it for a line that does not fit at all
+    private void ensureCapacity(int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+        if (buffer.position() > 0 && failure == null) {
+            try {
+                buffer.flip();
+                writeFully(buffer);
+            } catch (IOException e) {
+                failure = e;
+            }
+            buffer.clear();
+        }
+        if (buffer.remaining() < bytes) {
+            buffer = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, bytes));
+        }
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    // Header stays first; the credential lines are sorted and swapped in atomically
+    private static void sortLines(Path path) throws IOException {
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        if (lines.size() <= 2) {
+            return;
+        }
+        String[] body = lines.subList(1, lines.size()).toArray(new String[0]);
+        Arrays.sort(body);
+
+        Path sortedPath = path.resolveSibling(path.getFileName() + ".sorting");
+        List<String> out = new ArrayList<>(lines.size());
+        out.add(lines.get(0));
+        out.addAll(Arrays.asList(body));
+        Files.write(sortedPath, out, StandardCharsets.UTF_8);
+        Files.move(sortedPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,177 @@
+// File: src/main/java/org/example/io/ShardConnection.java
+package org.example.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One coordinator <-> worker TCP connection. Every message is a type byte followed by
+ * its fields in DataOutput encoding; the coordinator opens with a Job, the worker answers
+ * Ready (or Failed), and then shards go one way and results, progress and Done the other.
+ * send() only buffers; callers flush() after the messages the other side waits for.
+ * Sending is synchronized so worker threads can report results concurrently; reading
+ * is done by a single thread per side.
+ */
+public final class ShardConnection implements AutoCloseable {
+
+    public sealed interface Message permits Job, Shard, Stop, Ready, Cracked, Progress, Done, Failed {
+    }
+
+    // Coordinator -> worker: the inputs to load; fingerprint as in Checkpoint.fingerprint
+    public record Job(String usersPath, String dictionaryPath, String fingerprint, double bloomFpr)
+            implements Message {
+    }
+
+    // Coordinator -> worker: hash the dictionary lines starting in [from, to)
+    public record Shard(int id, long from, long to) implements Message {
+    }
+
+    // Coordinator -> worker: no more shards, abandon the current one and disconnect
+    public record Stop() implements Message {
+    }
+
+    public record Ready(int threads) implements Message {
+    }
+
+    public record Cracked(String username, String hashedPassword, String plainPassword) implements Message {
+    }
+
+    // Dictionary bytes and hashes done since the previous Progress; also the worker's heartbeat
+    public record Progress(long bytes, long hashes) implements Message {
+    }
+
+    public record Done(int shard) implements Message {
+    }
+
+    public record Failed(String reason) implements Message {
+    }
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 10_000;
+
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+
+    public ShardConnection(Socket socket) throws IOException {
+        this.socket = socket;
+        this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+    }
+
+    public static ShardConnection connect(String host, int port) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(host, port), CONNECT_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            return new ShardConnection(socket);
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    // A read blocked longer than this fails with SocketTimeoutException; 0 waits forever
+    public void readTimeout(int millis) throws IOException {
+        socket.setSoTimeout(millis);
+    }
+
+    public String remote() {
+        return String.valueOf(socket.getRemoteSocketAddress());
+    }
+
+    public synchronized void send(Message message) throws IOException {
+        switch (message) {
+            case Job job -> {
+                out.writeByte(1);
+                writeString(job.usersPath());
+                writeString(job.dictionaryPath());
+                writeString(job.fingerprint());
+                out.writeDouble(job.bloomFpr());
+            }
+            case Shard shard -> {
+                out.writeByte(2);
+                out.writeInt(shard.id());
+                out.writeLong(shard.from());
+                out.writeLong(shard.to());
+            }
+            case Stop stop -> out.writeByte(3);
+            case Ready ready -> {
+                out.writeByte(4);
+                out.writeInt(ready.threads());
+            }
+            case Cracked cracked -> {
+                out.writeByte(5);
+                writeString(cracked.username());
+                writeString(cracked.hashedPassword());
+                writeString(cracked.plainPassword());
+            }
+            case Progress progress -> {
+                out.writeByte(6);
+                out.writeLong(progress.bytes());
+                out.writeLong(progress.hashes());
+            }
+            case Done done -> {
+                out.writeByte(7);
+                out.writeInt(done.shard());
+            }
+            case Failed failed -> {
+                out.writeByte(8);
+                writeString(failed.reason());
+            }
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Blocks for the next message.
+     * @throws EOFException when the other side has closed the connection
+     */
+    public Message read() throws IOException {
+        int type = in.readByte();
+        return switch (type) {
+            case 1 -> new Job(readString(), readString(), readString(), in.readDouble());
+            case 2 -> new Shard(in.readInt(), in.readLong(), in.readLong());
+            case 3 -> new Stop();
+            case 4 -> new Ready(in.readInt());
+            case 5 -> new Cracked(readString(), readString(), readString());
+            case 6 -> new Progress(in.readLong(), in.readLong());
+            case 7 -> new Done(in.readInt());
+            case 8 -> new Failed(readString());
+            default -> throw new IOException("Unknown message type " + type + " from " + remote());
+        };
+    }
+
+    // Length-prefixed UTF-8: unlike writeUTF, not limited to 64 KB
+    private void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private String readString() throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupt string length " + length + " from " + remote());
+        }
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Connection to " + remote() + " closed mid-message");
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
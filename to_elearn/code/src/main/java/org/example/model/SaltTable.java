@@ -0,0 +1,117 @@
+// File: src/main/java/org/example/model/SaltTable.java
+package org.example.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Salt column for salted inputs ("user,salt,hash"): every distinct salt is interned once
+ * into a byte arena under a dense salt id, and each UserStore id maps to its salt id.
+ * Salts are kept as the raw bytes of the column, exactly as they are fed to the hash.
+ *
+ * Filled single-threaded while loading; read-only (and thread-safe) afterwards.
+ */
+public class SaltTable {
+
+    public static final int NO_SALT = -1;
+
+    private static final double LOAD_FACTOR = 0.75;
+
+    private byte[] arena = new byte[1024];
+    private int arenaSize;
+    private int[] offsets = new int[17];   // size + 1 entries; salt i is [offsets[i], offsets[i + 1])
+    private int[] table = new int[32];     // open addressing on the salt bytes: id + 1, 0 marks an empty slot
+    private int size;
+    private int[] userSalts = new int[16];
+    private int users;
+
+    public SaltTable() {
+        Arrays.fill(userSalts, NO_SALT);
+    }
+
+    // Id of the salt, adding it on first sight
+    public int intern(byte[] bytes, int offset, int length) {
+        int slot = hash(bytes, offset, length) & (table.length - 1);
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            if (equals(entry - 1, bytes, offset, length)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+
+        int id = size;
+        if (id + 1 >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        if (arenaSize + length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arenaSize + length, arena.length * 2));
+        }
+        System.arraycopy(bytes, offset, arena, arenaSize, length);
+        arenaSize += length;
+        offsets[id + 1] = arenaSize;
+        table[slot] = id + 1;
+        size++;
+        if (size > table.length * LOAD_FACTOR) {
+            rehash(table.length * 2);
+        }
+        return id;
+    }
+
+    // Records the salt of a user; users are assigned in id order as they are added to the store
+    public void assign(int userId, int saltId) {
+        if (userId >= userSalts.length) {
+            int grown = Math.max(userId + 1, userSalts.length + (userSalts.length >> 1));
+            int from = userSalts.length;
+            userSalts = Arrays.copyOf(userSalts, grown);
+            Arrays.fill(userSalts, from, grown, NO_SALT);
+        }
+        userSalts[userId] = saltId;
+        users = Math.max(users, userId + 1);
+    }
+
+    // Number of distinct salts
+    public int size() {
+        return size;
+    }
+
+    // Salt id of a user, or NO_SALT
+    public int saltOf(int userId) {
+        return userId < users ? userSalts[userId] : NO_SALT;
+    }
+
+    public byte[] salt(int saltId) {
+        return Arrays.copyOfRange(arena, offsets[saltId], offsets[saltId + 1]);
+    }
+
+    // Salt text for the console (invalid UTF-8 is replaced)
+    public String saltText(int saltId) {
+        return new String(arena, offsets[saltId], offsets[saltId + 1] - offsets[saltId], StandardCharsets.UTF_8);
+    }
+
+    private void rehash(int capacity) {
+        int[] rehashed = new int[capacity];
+        for (int id = 0; id < size; id++) {
+            int slot = hash(arena, offsets[id], offsets[id + 1] - offsets[id]) & (capacity - 1);
+            while (rehashed[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            rehashed[slot] = id + 1;
+        }
+        table = rehashed;
+    }
+
+    private boolean equals(int id, byte[] bytes, int offset, int length) {
+        int from = offsets[id];
+        return offsets[id + 1] - from == length
+                && Arrays.equals(arena, from, from + length, bytes, offset, offset + length);
+    }
+
+    private static int hash(byte[] bytes, int offset, int length) {
+        int h = 1;
+        for (int i = offset; i < offset + length; i++) {
+            h = 31 * h + bytes[i];
+        }
+        return h ^ (h >>> 16);
+    }
+}
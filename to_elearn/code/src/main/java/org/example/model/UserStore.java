@@ -0,0 +1,428 @@
+// File: src/main/java/org/example/model/UserStore.java
+package org.example.model;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import org.example.util.HashAlgorithm;
+import org.example.util.Hasher;
+
+/**
+ * Columnar store of the target users, addressed by a dense id in file order.
+ * Usernames live in one UTF-8 arena with an offset table, digests in fixed-size
+ * long[] pages (LANES per user) and the cracked flags in a bitset updated with CAS,
+ * so ten million users take a few hundred MB and a scan walks contiguous arrays.
+ * Each user has a HashAlgorithm (one byte column); the lanes hold its index key and
+ * the second half of a SHA-512 digest goes to tail pages allocated only where needed.
+ * Hash text is rebuilt from the lanes on demand, in upper case for users whose
+ * hash was written that way (one bit each); only mixed-case and invalid hashes keep
+ * their original text, in the name arena ahead of the name.
+ *
+ * Filled single-threaded by add(); after loading, reads and markCracked are thread-safe.
+ */
+public class UserStore {
+
+    public static final int NOT_FOUND = -1;
+    public static final int LANES = HashAlgorithm.KEY_BYTES / 8;
+
+    private static final double NAME_LOAD_FACTOR = 0.75;
+    // 8K users (256 KB) per digest page: no huge contiguous arrays, growth never copies digests
+    private static final int PAGE_SHIFT = 13;
+    private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+    private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int LOWER_CASE = 0;
+    private static final int UPPER_CASE = 1;
+    private static final int MIXED_CASE = 2;
+
+    private byte[] names;
+    private int namesSize;
+    // size + 1 entries; user i is [nameOffsets[i], nameOffsets[i + 1]): its name, after
+    // [varint length][hash text] if it is in rawHash
+    private int[] nameOffsets;
+    private long[][] digestPages;  // LANES per user, zero for users without a valid digest
+    private long[][] tailPages;    // LANES per user, digest bytes past the key (SHA-512 only)
+    private byte[] algorithms;     // HashAlgorithm ordinal per user
+    private final int[] algorithmCounts = new int[HashAlgorithm.values().length];
+    private long[] noDigest;       // bitset: hash is not valid hex of its algorithm
+    private long[] upperHex;       // bitset: hash written in uppercase hex
+    private long[] rawHash;        // bitset: hash text kept in the name arena (mixed case or no digest)
+    private long[] cracked;        // bitset, CAS-updated by the workers
+    private int[] nameTable;       // open addressing on the username: id + 1, 0 marks an empty slot
+    private int size;
+
+    private final long[] scratch = new long[HashAlgorithm.MAX_BYTES / 8];
+
+    public UserStore(int expectedUsers, int expectedNameBytes) {
+        int capacity = Math.max(16, expectedUsers);
+        this.names = new byte[Math.max(256, expectedNameBytes)];
+        this.nameOffsets = new int[capacity + 1];
+        this.digestPages = new long[(capacity >>> PAGE_SHIFT) + 1][];
+        this.tailPages = new long[digestPages.length][];
+        this.algorithms = new byte[capacity];
+        this.noDigest = new long[bitWords(capacity)];
+        this.upperHex = new long[bitWords(capacity)];
+        this.rawHash = new long[bitWords(capacity)];
+        this.cracked = new long[bitWords(capacity)];
+        this.nameTable = new int[tableCapacity(capacity)];
+    }
+
+    // Adds a user whose algorithm is told by the hash length (32 hex digits: MD5, 40: SHA-1...)
+    public boolean add(byte[] line, int nameOffset, int nameLength, int hashOffset, int hashLength) {
+        return add(line, nameOffset, nameLength, hashOffset, hashLength, HashAlgorithm.ofHexLength(hashLength));
+    }
+
+    /**
+     * Adds a user from raw UTF-8 slices; the first entry for a username wins. The user
+     * has no digest if algorithm is null or the hash is not valid hex of its length.
+     * @return false if the username is already present
+     */
+    public boolean add(byte[] line, int nameOffset, int nameLength, int hashOffset, int hashLength,
+            HashAlgorithm algorithm) {
+        int hash = nameHash(line, nameOffset, nameLength);
+        int slot = hash & (nameTable.length - 1);
+        int entry;
+        while ((entry = nameTable[slot]) != 0) {
+            if (nameEquals(entry - 1, line, nameOffset, nameLength)) {
+                return false;
+            }
+            slot = (slot + 1) & (nameTable.length - 1);
+        }
+
+        int id = size;
+        boolean digest = algorithm != null && hashLength == algorithm.hexLength()
+                && Hasher.decodeHex(line, hashOffset, hashLength, scratch);
+        int letterCase = digest ? letterCase(line, hashOffset, hashLength) : MIXED_CASE;
+        ensureCapacity(id + 1, (letterCase == MIXED_CASE ? 5 + hashLength : 0) + nameLength);
+        if (letterCase == MIXED_CASE) {
+            namesSize = putVarint(names, namesSize, hashLength);
+            System.arraycopy(line, hashOffset, names, namesSize, hashLength);
+            namesSize += hashLength;
+            rawHash[id >>> 6] |= 1L << id;
+        } else if (letterCase == UPPER_CASE) {
+            upperHex[id >>> 6] |= 1L << id;
+        }
+        System.arraycopy(line, nameOffset, names, namesSize, nameLength);
+        namesSize += nameLength;
+        nameOffsets[id + 1] = namesSize;
+
+        algorithms[id] = (byte) (algorithm == null ? HashAlgorithm.SHA256 : algorithm).ordinal();
+        if (digest) {
+            int page = id >>> PAGE_SHIFT;
+            System.arraycopy(scratch, 0, digestPages[page], (id & PAGE_MASK) * LANES, LANES);
+            if (algorithm.digestBytes() > HashAlgorithm.KEY_BYTES) {
+                if (tailPages[page] == null) {
+                    tailPages[page] = new long[LANES << PAGE_SHIFT];
+                }
+                System.arraycopy(scratch, LANES, tailPages[page], (id & PAGE_MASK) * LANES, LANES);
+            }
+            algorithmCounts[algorithm.ordinal()]++;
+        } else {
+            noDigest[id >>> 6] |= 1L << id;
+        }
+
+        nameTable[slot] = id + 1;
+        size++;
+        if (size > nameTable.length * NAME_LOAD_FACTOR) {
+            rehashNames(nameTable.length * 2);
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String username(int id) {
+        int from = nameStart(id);
+        return new String(names, from, nameOffsets[id + 1] - from, StandardCharsets.UTF_8);
+    }
+
+    // Hash text as it appeared in the input
+    public String hashedPassword(int id) {
+        if (isSet(rawHash, id)) {
+            int[] pos = {nameOffsets[id]};
+            int length = getVarint(names, pos);
+            return new String(names, pos[0], length, StandardCharsets.UTF_8);
+        }
+        String hex = Hasher.lanesToHex(lane(id, 0), lane(id, 1), lane(id, 2), lane(id, 3));
+        HashAlgorithm algorithm = algorithm(id);
+        if (algorithm.digestBytes() < HashAlgorithm.KEY_BYTES) {
+            hex = hex.substring(0, algorithm.hexLength());
+        } else if (algorithm.digestBytes() > HashAlgorithm.KEY_BYTES) {
+            long[] tail = tailPages[id >>> PAGE_SHIFT];
+            int base = (id & PAGE_MASK) * LANES;
+            hex += Hasher.lanesToHex(tail[base], tail[base + 1], tail[base + 2], tail[base + 3]);
+        }
+        return isSet(upperHex, id) ? hex.toUpperCase(Locale.ROOT) : hex;
+    }
+
+    public HashAlgorithm algorithm(int id) {
+        return HashAlgorithm.ofOrdinal(algorithms[id]);
+    }
+
+    // Users with a valid digest of the algorithm
+    public int count(HashAlgorithm algorithm) {
+        return algorithmCounts[algorithm.ordinal()];
+    }
+
+    // Algorithms with at least one crackable user; each needs its own dictionary pass
+    public Set<HashAlgorithm> algorithms() {
+        Set<HashAlgorithm> present = EnumSet.noneOf(HashAlgorithm.class);
+        for (HashAlgorithm algorithm : HashAlgorithm.values()) {
+            if (count(algorithm) > 0) {
+                present.add(algorithm);
+            }
+        }
+        return present;
+    }
+
+    // False if the hash column was not valid hex of a known algorithm; such users can never be cracked
+    public boolean hasDigest(int id) {
+        return !isSet(noDigest, id);
+    }
+
+    public long lane(int id, int lane) {
+        return digestPages[id >>> PAGE_SHIFT][(id & PAGE_MASK) * LANES + lane];
+    }
+
+    // Id of a username, or NOT_FOUND
+    public int find(String username) {
+        byte[] bytes = username.getBytes(StandardCharsets.UTF_8);
+        int slot = nameHash(bytes, 0, bytes.length) & (nameTable.length - 1);
+        int entry;
+        while ((entry = nameTable[slot]) != 0) {
+            if (nameEquals(entry - 1, bytes, 0, bytes.length)) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & (nameTable.length - 1);
+        }
+        return NOT_FOUND;
+    }
+
+    public boolean isCracked(int id) {
+        return ((long) BITS.getVolatile(cracked, id >>> 6) & (1L << id)) != 0;
+    }
+
+    /**
+     * Sets the cracked flag; lock-free, exactly one caller wins per user.
+     * @return true if this call cracked the user
+     */
+    public boolean markCracked(int id) {
+        int word = id >>> 6;
+        long bit = 1L << id;
+        long current;
+        do {
+            current = (long) BITS.getVolatile(cracked, word);
+            if ((current & bit) != 0) {
+                return false;
+            }
+        } while (!BITS.compareAndSet(cracked, word, current, current | bit));
+        return true;
+    }
+
+    // Clears all cracked flags (benchmarks reuse one store across invocations)
+    public void resetCracked() {
+        for (int i = 0; i < cracked.length; i++) {
+            BITS.setVolatile(cracked, i, 0L);
+        }
+    }
+
+    // All ids in order; splits into even index ranges when run in parallel
+    public IntStream ids() {
+        return StreamSupport.intStream(idSpliterator(), false);
+    }
+
+    // The spliterator behind ids(), for callers that hand its splits to their own executor
+    public Spliterator.OfInt idSpliterator() {
+        return new IdSpliterator(0, size);
+    }
+
+    // Approximate heap footprint of the columns
+    public long bytes() {
+        long pages = Arrays.stream(digestPages).filter(page -> page != null).count()
+                + Arrays.stream(tailPages).filter(page -> page != null).count();
+        return names.length + 4L * nameOffsets.length + 8L * LANES * (pages << PAGE_SHIFT) + algorithms.length
+                + 8L * (noDigest.length + upperHex.length + rawHash.length + cracked.length) + 4L * nameTable.length;
+    }
+
+    private void ensureCapacity(int users, int nameBytes) {
+        if (users >= nameOffsets.length) {
+            int capacity = Math.max(users + 1, nameOffsets.length + (nameOffsets.length >> 1));
+            nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+            algorithms = Arrays.copyOf(algorithms, capacity);
+            noDigest = Arrays.copyOf(noDigest, bitWords(capacity));
+            upperHex = Arrays.copyOf(upperHex, bitWords(capacity));
+            rawHash = Arrays.copyOf(rawHash, bitWords(capacity));
+            cracked = Arrays.copyOf(cracked, bitWords(capacity));
+        }
+        int page = (users - 1) >>> PAGE_SHIFT;
+        if (page >= digestPages.length) {
+            digestPages = Arrays.copyOf(digestPages, Math.max(page + 1, digestPages.length * 2));
+            tailPages = Arrays.copyOf(tailPages, digestPages.length);
+        }
+        if (digestPages[page] == null) {
+            digestPages[page] = new long[LANES << PAGE_SHIFT];
+        }
+        if (namesSize + nameBytes > names.length) {
+            long grown = Math.max((long) namesSize + nameBytes, names.length + ((long) names.length >> 1));
+            if (grown > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Username arena exceeds 2 GB");
+            }
+            names = Arrays.copyOf(names, (int) grown);
+        }
+    }
+
+    private void rehashNames(int capacity) {
+        int[] table = new int[capacity];
+        for (int id = 0; id < size; id++) {
+            int from = nameStart(id);
+            int slot = nameHash(names, from, nameOffsets[id + 1] - from) & (capacity - 1);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            table[slot] = id + 1;
+        }
+        nameTable = table;
+    }
+
+    // Where the user's name starts in the arena, past a kept hash text
+    private int nameStart(int id) {
+        if (!isSet(rawHash, id)) {
+            return nameOffsets[id];
+        }
+        int[] pos = {nameOffsets[id]};
+        int length = getVarint(names, pos);
+        return pos[0] + length;
+    }
+
+    private boolean nameEquals(int id, byte[] bytes, int offset, int length) {
+        int from = nameStart(id);
+        return nameOffsets[id + 1] - from == length
+                && Arrays.equals(names, from, from + length, bytes, offset, offset + length);
+    }
+
+    private static int nameHash(byte[] bytes, int offset, int length) {
+        int h = 1;
+        for (int i = offset; i < offset + length; i++) {
+            h = 31 * h + bytes[i];
+        }
+        // Spread the high bits, the table is indexed by the low ones
+        return h ^ (h >>> 16);
+    }
+
+    // LOWER_CASE, UPPER_CASE or MIXED_CASE letters in valid hex; digits alone count as lower case
+    private static int letterCase(byte[] hex, int offset, int length) {
+        boolean lower = false;
+        boolean upper = false;
+        for (int i = offset; i < offset + length; i++) {
+            lower |= hex[i] >= 'a';
+            upper |= hex[i] >= 'A' && hex[i] <= 'F';
+        }
+        return upper ? (lower ? MIXED_CASE : UPPER_CASE) : LOWER_CASE;
+    }
+
+    private static boolean isSet(long[] bits, int id) {
+        return (bits[id >>> 6] & (1L << id)) != 0;
+    }
+
+    private static int putVarint(byte[] target, int pos, int value) {
+        while ((value & ~0x7F) != 0) {
+            target[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[pos++] = (byte) value;
+        return pos;
+    }
+
+    // Reads a varint at pos[0] and advances it
+    private static int getVarint(byte[] source, int[] pos) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = source[pos[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static int bitWords(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    private static int tableCapacity(int users) {
+        return Integer.highestOneBit((int) Math.max(16, users / NAME_LOAD_FACTOR)) << 1;
+    }
+
+    /**
+     * Index-range spliterator: halves its range on every split so parallel workers get
+     * equal, contiguous blocks of ids; stops splitting below MIN_SPLIT ids.
+     */
+    static final class IdSpliterator implements Spliterator.OfInt {
+        private static final int MIN_SPLIT = 1024;
+
+        private int from;
+        private final int to;
+
+        IdSpliterator(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public OfInt trySplit() {
+            int length = to - from;
+            if (length < 2 * MIN_SPLIT) {
+                return null;
+            }
+            int mid = from + (length >>> 1);
+            IdSpliterator prefix = new IdSpliterator(from, mid);
+            from = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (from >= to) {
+                return false;
+            }
+            action.accept(from++);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            int end = to;
+            for (int id = from; id < end; id++) {
+                action.accept(id);
+            }
+            from = end;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | DISTINCT | SORTED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+
+        @Override
+        public Comparator<? super Integer> getComparator() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+// File: src/main/java/org/example/report/RunMetrics.java
+package org.example.report;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Machine-readable run metrics: wall and CPU time per phase, GC activity, peak heap,
+ * thread counts and throughput values, written as JSON or Prometheus text at the end
+ * of a run so runs can be compared without parsing console output.
+ * Phases are timed around their body (time, run) on the main thread.
+ */
+public class RunMetrics {
+
+    public enum Format { JSON, PROMETHEUS }
+
+    // Measurements of one closed phase
+    public record PhaseResult(String name, long wallNanos, long cpuNanos, long gcCount, long gcMillis) {
+        public double wallSeconds() {
+            return wallNanos / 1e9;
+        }
+    }
+
+    // Body of a timed phase that yields a value
+    @FunctionalInterface
+    public interface PhaseBody<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    // Body of a timed phase without a result
+    @FunctionalInterface
+    public interface PhaseAction<E extends Exception> {
+        void run() throws E;
+    }
+
+    private final List<PhaseResult> phases = new ArrayList<>();
+    private final Map<String, String> labels = new LinkedHashMap<>();
+    private final Map<String, Double> values = new LinkedHashMap<>();
+    private final long startWall = System.nanoTime();
+    private final long startCpu = processCpuNanos();
+
+    // Runs body as the named phase and returns its result; the phase is recorded even if body throws
+    public <T, E extends Exception> T time(String name, PhaseBody<T, E> body) throws E {
+        long wall = System.nanoTime();
+        long cpu = processCpuNanos();
+        long collections = gcCount();
+        long collectionMillis = gcMillis();
+        try {
+            return body.run();
+        } finally {
+            phases.add(new PhaseResult(name, System.nanoTime() - wall, processCpuNanos() - cpu,
+                    gcCount() - collections, gcMillis() - collectionMillis));
+        }
+    }
+
+    public <E extends Exception> void run(String name, PhaseAction<E> body) throws E {
+        time(name, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    // Descriptive run attributes (mode, index type, ...)
+    public void label(String name, String value) {
+        labels.put(name, value);
+    }
+
+    // Counters, gauges and derived rates
+    public void value(String name, double value) {
+        values.put(name, value);
+    }
+
+    // Count, percentiles and max of a latency histogram as name_count, name_p50_seconds, ...
+    public void latency(String name, LatencyHistogram histogram) {
+        value(name + "_count", histogram.count());
+        value(name + "_p50_seconds", histogram.percentileNanos(0.50) / 1e9);
+        value(name + "_p90_seconds", histogram.percentileNanos(0.90) / 1e9);
+        value(name + "_p99_seconds", histogram.percentileNanos(0.99) / 1e9);
+        value(name + "_p999_seconds", histogram.percentileNanos(0.999) / 1e9);
+        value(name + "_max_seconds", histogram.maxNanos() / 1e9);
+    }
+
+    // Wall seconds of a recorded phase, or 0 if it did not run
+    public double seconds(String phase) {
+        return phases.stream().filter(p -> p.name().equals(phase)).mapToDouble(PhaseResult::wallSeconds).sum();
+    }
+
+    public List<PhaseResult> phases() {
+        return phases;
+    }
+
+    public void write(Path path, Format format) throws IOException {
+        // JVM-wide figures are taken once, at write time
+        value("total_wall_seconds", (System.nanoTime() - startWall) / 1e9);
+        value("total_cpu_seconds", (processCpuNanos() - startCpu) / 1e9);
+        value("peak_heap_bytes", peakHeapBytes());
+        value("gc_collections", gcCount());
+        value("gc_time_seconds", gcMillis() / 1e3);
+        value("peak_live_threads", ManagementFactory.getThreadMXBean().getPeakThreadCount());
+
+        try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            if (format == Format.PROMETHEUS) {
+                writePrometheus(out);
+            } else {
+                writeJson(out);
+            }
+        }
+    }
+
+    private void writeJson(Writer out) throws IOException {
+        out.write("{\n");
+        out.write("  \"timestamp\": \"" + Instant.now() + "\",\n");
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            out.write("  \"" + label.getKey() + "\": \"" + escape(label.getValue()) + "\",\n");
+        }
+        out.write("  \"phases\": [");
+        for (int i = 0; i < phases.size(); i++) {
+            PhaseResult p = phases.get(i);
+            out.write(i == 0 ? "\n" : ",\n");
+            out.write(String.format(Locale.ROOT,
+                    "    {\"name\": \"%s\", \"wall_seconds\": %.6f, \"cpu_seconds\": %.6f,"
+                            + " \"gc_collections\": %d, \"gc_time_seconds\": %.3f}",
+                    p.name(), p.wallNanos() / 1e9, p.cpuNanos() / 1e9, p.gcCount(), p.gcMillis() / 1e3));
+        }
+        out.write(phases.isEmpty() ? "],\n" : "\n  ],\n");
+        out.write("  \"metrics\": {");
+        int i = 0;
+        for (Map.Entry<String, Double> value : values.entrySet()) {
+            out.write(i++ == 0 ? "\n" : ",\n");
+            out.write("    \"" + value.getKey() + "\": " + number(value.getValue()));
+        }
+        out.write(values.isEmpty() ? "}\n" : "\n  }\n");
+        out.write("}\n");
+    }
+
+    private void writePrometheus(Writer out) throws IOException {
+        StringBuilder info = new StringBuilder();
+        for (Map.Entry<String, String> label : labels.entrySet()) {
+            info.append(info.length() == 0 ? "" : ",").append(label.getKey())
+                    .append("=\"").append(escape(label.getValue())).append('"');
+        }
+        out.write("# TYPE se301_run_info gauge\n");
+        out.write("se301_run_info{" + info + "} 1\n");
+
+        String[][] phaseMetrics = {
+            {"se301_phase_wall_seconds", "Wall-clock time per phase"},
+            {"se301_phase_cpu_seconds", "Process CPU time per phase, all threads"},
+            {"se301_phase_gc_collections", "GC collections during the phase"},
+            {"se301_phase_gc_time_seconds", "Accumulated GC time during the phase"},
+        };
+        for (int m = 0; m < phaseMetrics.length; m++) {
+            out.write("# HELP " + phaseMetrics[m][0] + " " + phaseMetrics[m][1] + "\n");
+            out.write("# TYPE " + phaseMetrics[m][0] + " gauge\n");
+            for (PhaseResult p : phases) {
+                double v = switch (m) {
+                    case 0 -> p.wallNanos() / 1e9;
+                    case 1 -> p.cpuNanos() / 1e9;
+                    case 2 -> p.gcCount();
+                    default -> p.gcMillis() / 1e3;
+                };
+                out.write(phaseMetrics[m][0] + "{phase=\"" + p.name() + "\"} " + number(v) + "\n");
+            }
+        }
+        for (Map.Entry<String, Double> value : values.entrySet()) {
+            out.write("# TYPE se301_" + value.getKey() + " gauge\n");
+            out.write("se301_" + value.getKey() + " " + number(value.getValue()) + "\n");
+        }
+    }
+
+    private static String number(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.6f", value);
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static long processCpuNanos() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return Math.max(0, os.getProcessCpuTime());
+        }
+        return 0;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static long peakHeapBytes() {
+        long total = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                total += pool.getPeakUsage().getUsed();
+            }
+        }
+        return total;
+    }
+}
@@ -3,81 +3,159 @@ package org.example.report;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 
-// Implements a Live Status Reporter that reports every N tasks
+// Implements a Live Status Reporter as a background sampler.
+// Workers only bump striped LongAdder counters; a single daemon thread reads them
+// every interval, derives users/s, hashes/s and an ETA, and prints the status line.
 public class StatusReporter {
 
+    private static final double RATE_SMOOTHING = 0.3; // EWMA weight of the newest interval
+
     private final long totalTasks;
-    private final AtomicInteger passwordsFound;
-    private final AtomicInteger usersChecked;
-    private final int reportInterval;
+    private final LongAdder passwordsFound;
+    private final LongAdder usersChecked;
+    private final LongAdder hashesComputed;
+    // Progress source: users checked (batch attack) or dictionary bytes consumed (streaming)
+    private final long totalWork;
+    private final LongAdder workDone;
+    private final boolean progressIsUsers;
+    private final long intervalMillis;
     private final DateTimeFormatter formatter;
-    private long lastReportedMilestone = 0; // Regular long, protected by synchronized
 
-    public StatusReporter(long totalTasks, AtomicInteger passwordsFound, AtomicInteger usersChecked) {
-        this(totalTasks, passwordsFound, usersChecked, 1000);
+    private ScheduledExecutorService sampler;
+    private volatile Supplier<String> detail = () -> "";
+    // Pre-filter counters (probes let through, probes rejected, let through but not in the index); null if unused
+    private volatile LongAdder[] filter;
+
+    // Only touched by the sampler thread (and by stop() after the sampler has finished)
+    private long lastNanos;
+    private long lastUsers;
+    private long lastHashes;
+    private long lastWork;
+    private double workRate = -1;
+
+    public StatusReporter(long totalTasks, LongAdder passwordsFound, LongAdder usersChecked, LongAdder hashesComputed) {
+        this(totalTasks, passwordsFound, usersChecked, hashesComputed, totalTasks, usersChecked, 1000);
     }
 
-    public StatusReporter(long totalTasks, AtomicInteger passwordsFound, AtomicInteger usersChecked, int reportInterval) {
+    /**
+     * @param totalWork      amount of work behind 100% (users or dictionary bytes)
+     * @param workDone       counter of completed work, read by the sampler
+     * @param intervalMillis sampling period; 0 or less disables output (benchmarks)
+     */
+    public StatusReporter(long totalTasks, LongAdder passwordsFound, LongAdder usersChecked, LongAdder hashesComputed,
+            long totalWork, LongAdder workDone, long intervalMillis) {
         this.totalTasks = totalTasks;
         this.passwordsFound = passwordsFound;
         this.usersChecked = usersChecked;
-        this.reportInterval = reportInterval;
+        this.hashesComputed = hashesComputed;
+        this.totalWork = totalWork;
+        this.workDone = workDone;
+        this.progressIsUsers = workDone == usersChecked;
+        this.intervalMillis = intervalMillis;
         this.formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     }
 
-    /**
-     * Check if we should report based on milestones.
-     * Thread-safe with synchronized block.
-     */
-    public void checkAndReport() {
-        long currentCount = usersChecked.get();
-        long currentMilestone = (currentCount / reportInterval) * reportInterval;
-        
-        synchronized (this) {
-            // Report if we've crossed a new milestone
-            if (currentMilestone > lastReportedMilestone && currentMilestone > 0) {
-                lastReportedMilestone = currentMilestone;
-                doReport(currentMilestone);
-            }
-            
-            // Special case: report on completion
-            if (currentCount == totalTasks && lastReportedMilestone < totalTasks) {
-                lastReportedMilestone = totalTasks;
-                doReport(totalTasks);
-            }
+    // Extra text appended to every status line (e.g. per-group progress), evaluated by the sampler
+    public void detail(Supplier<String> detail) {
+        this.detail = detail;
+    }
+
+    // Adds the pre-filter's pass/reject counts and its measured false-positive rate to the status line
+    public void filter(LongAdder passed, LongAdder rejected, LongAdder falsePositives) {
+        this.filter = new LongAdder[] {passed, rejected, falsePositives};
+    }
+
+    // Starts the sampler thread; counters are read relative to this moment for rates
+    public synchronized void start() {
+        if (sampler != null || intervalMillis <= 0) {
+            return;
         }
+        lastNanos = System.nanoTime();
+        lastUsers = usersChecked.sum();
+        lastHashes = hashesComputed.sum();
+        lastWork = workDone.sum();
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "status-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
     }
 
-    /**
-     * Public method to manually trigger a status update (used by CrackingEngine).
-     * This reports the exact current count if it hasn't been reported yet.
-     */
-    public void reportNow() {
-        long currentCount = usersChecked.get();
-        
-        synchronized (this) {
-            // Only report if this count hasn't been reported
-            if (currentCount > lastReportedMilestone) {
-                lastReportedMilestone = currentCount;
-                doReport(currentCount);
-                // Move cursor to next line after a manual/forced report
-                System.out.println();
-            }
+    // Stops the sampler and prints the final status line
+    public synchronized void stop() {
+        if (sampler == null) {
+            return;
+        }
+        sampler.shutdown();
+        try {
+            sampler.awaitTermination(intervalMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
+        sampler = null;
+        sample();
+        // Move cursor to next line after the final report
+        System.out.println();
     }
 
-    // Extracted the printing logic into a reusable method.
-    // Matches the old `DictionaryAttack` formatting: carriage-return in-place update
-    private void doReport(long milestone) {
-        long remaining = totalTasks - milestone;
-        double percent = totalTasks == 0 ? 100.0 : (double) milestone / totalTasks * 100.0;
+    private void sample() {
+        long now = System.nanoTime();
+        long users = usersChecked.sum();
+        long hashes = hashesComputed.sum();
+        long work = workDone.sum();
+        double seconds = Math.max(1e-9, (now - lastNanos) / 1e9);
+
+        double usersPerSecond = (users - lastUsers) / seconds;
+        double hashesPerSecond = (hashes - lastHashes) / seconds;
+        double intervalWorkRate = (work - lastWork) / seconds;
+        workRate = workRate < 0 ? intervalWorkRate
+                : RATE_SMOOTHING * intervalWorkRate + (1 - RATE_SMOOTHING) * workRate;
+        lastNanos = now;
+        lastUsers = users;
+        lastHashes = hashes;
+        lastWork = work;
+
+        long found = passwordsFound.sum();
+        long remaining = Math.max(0, totalTasks - (progressIsUsers ? users : found));
+        double percent = totalWork == 0 ? 100.0 : Math.min(100.0, (double) work / totalWork * 100.0);
         String timestamp = LocalDateTime.now().format(formatter);
 
         // Print with carriage return so the same console line is updated.
-        System.out.printf("\r[%s] %.2f%% complete | Passwords Found: %d | Users Remaining: %d",
-                timestamp, percent, passwordsFound.get(), remaining);
+        System.out.printf("\r[%s] %.2f%% complete | Passwords Found: %d | Users Remaining: %d"
+                        + " | %,.0f users/s | %,.0f hashes/s | ETA %s%s",
+                timestamp, percent, found, remaining, usersPerSecond, hashesPerSecond,
+                eta(Math.max(0, totalWork - work)), filterText() + detail.get());
         System.out.flush();
     }
-}
\ No newline at end of file
+
+    private String filterText() {
+        LongAdder[] counters = filter;
+        if (counters == null) {
+            return "";
+        }
+        long passed = counters[0].sum();
+        long rejected = counters[1].sum();
+        long falsePositives = counters[2].sum();
+        long negatives = falsePositives + rejected;
+        return String.format(" | Filter pass %,d / reject %,d (FP %.3f%%)", passed, rejected,
+                negatives == 0 ? 0.0 : 100.0 * falsePositives / negatives);
+    }
+
+    private String eta(long remainingWork) {
+        if (remainingWork == 0) {
+            return "00:00:00";
+        }
+        if (workRate <= 0) {
+            return "--:--:--";
+        }
+        long seconds = (long) Math.ceil(remainingWork / workRate);
+        return String.format("%02d:%02d:%02d", seconds / 3600, (seconds / 60) % 60, seconds % 60);
+    }
+}
@@ -0,0 +1,228 @@
+// File: src/main/java/org/example/tools/DatasetGenerator.java
+package org.example.tools;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+import org.example.util.HashAlgorithm;
+import org.example.util.Hasher;
+
+/**
+ * Writes a synthetic in.txt / dictionary.txt / out.txt triple in the same formats as
+ * datasets/small and datasets/large, at any size. Everything is streamed line by line:
+ * a dictionary word is a pure function of its id (base word + decimal id, and every
+ * base ends in a non-digit, so distinct ids give distinct words), so nothing is kept
+ * in memory beyond the output buffers.
+ *
+ * Usage: DatasetGenerator <output_dir> [--users=N] [--words=N] [--hit-rate=F]
+ *        [--duplicate-ratio=F] [--seed=N] [--algorithms=sha256,md5,...] [--salts=N]
+ * Sizes accept scientific notation, e.g. --words=1e9. With several algorithms the users
+ * take them in turn, so in.txt mixes digest lengths like a legacy audit export.
+ * With --salts=N in.txt is "user,salt,hash" with hash(salt + word) over N salts of very
+ * uneven popularity (salt k is picked with a quadratic skew towards low k).
+ */
+public class DatasetGenerator {
+
+    private static final String[] BASES = {
+        "password", "p@$$w0rd", "Password!", "dragon", "Dragon", "monkey", "master", "secret",
+        "superman", "Superman", "arsenal", "letmein", "qwerty", "admin", "@dm1n@", "manager",
+        "welcome", "sunshine", "football", "iloveyou", "shadow", "trustno1!", "princess", "batman"
+    };
+    private static final String[] NAMES = {
+        "david_fernandez", "david.ong", "z_chang", "wong.lee", "song", "priya_tan", "ong_a",
+        "garcia_a", "amir", "daniel", "kfernandez", "nur.aisyah", "lim_wei", "sarah.k", "raj_kumar"
+    };
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEADER = "user_name,hashed_password,plain_password\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final long users;
+    private final long words;
+    private final double hitRate;
+    private final double duplicateRatio;
+    private final long seed;
+    private final HashAlgorithm[] algorithms;
+    private final int salts;
+
+    // Reused for every line
+    private final byte[] word = new byte[64];
+    private final byte[] digest = new byte[HashAlgorithm.MAX_BYTES];
+    private final byte[] hex = new byte[HashAlgorithm.MAX_BYTES * 2];
+
+    public DatasetGenerator(long users, long words, double hitRate, double duplicateRatio, long seed) {
+        this(users, words, hitRate, duplicateRatio, seed, new HashAlgorithm[] {HashAlgorithm.SHA256}, 0);
+    }
+
+    // salts: number of distinct salts, 0 for unsalted "user,hash" lines
+    public DatasetGenerator(long users, long words, double hitRate, double duplicateRatio, long seed,
+            HashAlgorithm[] algorithms, int salts) {
+        if (hitRate < 0 || hitRate > 1 || duplicateRatio < 0 || duplicateRatio >= 1) {
+            throw new IllegalArgumentException("hit-rate must be in [0,1] and duplicate-ratio in [0,1)");
+        }
+        if (algorithms.length == 0 || salts < 0) {
+            throw new IllegalArgumentException("at least one algorithm is required and salts must be >= 0");
+        }
+        this.salts = salts;
+        this.algorithms = algorithms.clone();
+        this.users = users;
+        this.words = words;
+        this.hitRate = hitRate;
+        this.duplicateRatio = duplicateRatio;
+        this.seed = seed;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: DatasetGenerator <output_dir> [--users=N] [--words=N] [--hit-rate=F]"
+                    + " [--duplicate-ratio=F] [--seed=N] [--algorithms=sha256,md5,...] [--salts=N]");
+            System.exit(1);
+        }
+        long users = 1_000_000;
+        long words = 1_000_000;
+        double hitRate = 0.8;
+        double duplicateRatio = 0.02;
+        long seed = 42;
+        HashAlgorithm[] algorithms = {HashAlgorithm.SHA256};
+        int salts = 0;
+        for (int i = 1; i < args.length; i++) {
+            String[] option = args[i].split("=", 2);
+            String value = option.length > 1 ? option[1] : "";
+            switch (option[0]) {
+                case "--users" -> users = (long) Double.parseDouble(value);
+                case "--words" -> words = (long) Double.parseDouble(value);
+                case "--hit-rate" -> hitRate = Double.parseDouble(value);
+                case "--duplicate-ratio" -> duplicateRatio = Double.parseDouble(value);
+                case "--seed" -> seed = Long.parseLong(value);
+                case "--algorithms" -> algorithms = parseAlgorithms(value);
+                case "--salts" -> salts = (int) Double.parseDouble(value);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        long[] counts = new DatasetGenerator(users, words, hitRate, duplicateRatio, seed, algorithms, salts)
+                .generate(Paths.get(args[0]));
+        System.out.printf("Wrote %d dictionary lines (%d distinct), %d users, %d expected hits to %s in %d ms%n",
+                words, counts[0], users, counts[1], args[0], System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Generates dictionary.txt, in.txt and out.txt under dir.
+     * @return {distinct dictionary words, expected cracked users}
+     */
+    public long[] generate(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        long distinct = writeDictionary(dir.resolve("dictionary.txt"));
+        long hits = writeUsers(dir.resolve("in.txt"), dir.resolve("out.txt"), distinct);
+        return new long[] {distinct, hits};
+    }
+
+    // Line i repeats an earlier word with probability duplicateRatio, otherwise introduces the next id
+    private long writeDictionary(Path path) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        long distinct = 0;
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), 1 << 20)) {
+            for (long line = 0; line < words; line++) {
+                long id = distinct > 0 && random.nextDouble() < duplicateRatio
+                        ? random.nextLong(distinct)
+                        : distinct++;
+                out.write(word, 0, wordFor(id));
+                out.write('\n');
+            }
+        }
+        return distinct;
+    }
+
+    // A hit picks a word id that is in the dictionary; a miss picks one past the last id
+    private long writeUsers(Path usersPath, Path expectedPath, long distinct) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed ^ 0x5DEECE66DL);
+        // Own stream, so adding salts does not change which words the users get
+        SplittableRandom saltRandom = new SplittableRandom(seed ^ 0x5A17L);
+        byte[] message = new byte[word.length + 16];
+        long hits = 0;
+        try (OutputStream in = new BufferedOutputStream(Files.newOutputStream(usersPath), 1 << 20);
+             OutputStream expected = new BufferedOutputStream(Files.newOutputStream(expectedPath), 1 << 20)) {
+            expected.write(HEADER);
+            for (long user = 0; user < users; user++) {
+                boolean hit = distinct > 0 && random.nextDouble() < hitRate;
+                long id = hit ? random.nextLong(distinct) : distinct + random.nextLong(Long.MAX_VALUE - distinct);
+                int length = wordFor(id);
+                HashAlgorithm algorithm = algorithms[(int) (user % algorithms.length)];
+                byte[] salt = null;
+                if (salts > 0) {
+                    double u = saltRandom.nextDouble();
+                    salt = ("s" + (int) (u * u * salts)).getBytes(StandardCharsets.US_ASCII);
+                    System.arraycopy(salt, 0, message, 0, salt.length);
+                    System.arraycopy(word, 0, message, salt.length, length);
+                    Hasher.digest(algorithm, message, 0, salt.length + length, digest, 0);
+                } else {
+                    Hasher.digest(algorithm, word, 0, length, digest, 0);
+                }
+                for (int i = 0; i < algorithm.digestBytes(); i++) {
+                    hex[i * 2] = HEX[(digest[i] >> 4) & 0xF];
+                    hex[i * 2 + 1] = HEX[digest[i] & 0xF];
+                }
+                int hexLength = algorithm.hexLength();
+                byte[] username = (NAMES[(int) (user % NAMES.length)] + user).getBytes(StandardCharsets.US_ASCII);
+
+                in.write(username);
+                in.write(',');
+                if (salt != null) {
+                    in.write(salt);
+                    in.write(',');
+                }
+                in.write(hex, 0, hexLength);
+                in.write('\n');
+                if (hit) {
+                    expected.write(username);
+                    expected.write(',');
+                    expected.write(hex, 0, hexLength);
+                    expected.write(',');
+                    expected.write(word, 0, length);
+                    expected.write('\n');
+                    hits++;
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static HashAlgorithm[] parseAlgorithms(String value) {
+        String[] names = value.split(",");
+        HashAlgorithm[] parsed = new HashAlgorithm[names.length];
+        for (int i = 0; i < names.length; i++) {
+            parsed[i] = HashAlgorithm.parse(names[i]);
+            if (parsed[i] == null) {
+                throw new IllegalArgumentException("Unknown algorithm: " + names[i]);
+            }
+        }
+        return parsed;
+    }
+
+    // Writes the word for an id into word[] and returns its length
+    private int wordFor(long id) {
+        String base = BASES[(int) Long.remainderUnsigned(id * 0x9E3779B97F4A7C15L >>> 17, BASES.length)];
+        int length = 0;
+        for (int i = 0; i < base.length(); i++) {
+            word[length++] = (byte) base.charAt(i);
+        }
+        // Decimal id, most significant digit first
+        int digitsStart = length;
+        long value = id;
+        do {
+            word[length++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        for (int i = digitsStart, j = length - 1; i < j; i++, j--) {
+            byte swap = word[i];
+            word[i] = word[j];
+            word[j] = swap;
+        }
+        return length;
+    }
+}
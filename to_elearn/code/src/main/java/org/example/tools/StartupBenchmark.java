@@ -0,0 +1,162 @@
+// File: src/main/java/org/example/tools/StartupBenchmark.java
+package org.example.tools;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Time-to-result of short App runs, launched as fresh processes the way a per-tenant
+ * workflow launches them: the plain jar, the jar with an AppCDS archive (mvn -Pcds
+ * package) and the GraalVM native image (mvn -Pnative package), each when given.
+ * A run's result time is from process start until App reports the passwords found
+ * (the output file is complete by then); exit adds JVM shutdown, and in-app is App's
+ * own "Total time spent", so result minus in-app is startup. Variants take turns run
+ * by run so drift affects them alike, and every output is checked against out.txt.
+ *
+ * Usage: StartupBenchmark <jar> [--cds=ARCHIVE] [--native=BINARY] [--dataset=DIR] [--runs=N]
+ *        [--java=PATH] [--args="extra App options"]
+ */
+public class StartupBenchmark {
+
+    private static final String RESULT_LINE = "Total passwords found";
+    private static final String WORK_LINE = "Total time spent (milliseconds): ";
+
+    // One way of launching App; the command is completed with the three paths and the extra args
+    private record Variant(String name, List<String> command) {
+    }
+
+    // Milliseconds: until the result line, until exit, and App's own total
+    private record Sample(double result, double exit, double work) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: StartupBenchmark <jar> [--cds=ARCHIVE] [--native=BINARY] [--dataset=DIR]"
+                    + " [--runs=N] [--java=PATH] [--args=\"extra App options\"]");
+            System.exit(1);
+        }
+        String jar = args[0];
+        String cds = null;
+        String nativeImage = null;
+        Path dataset = Paths.get("../datasets/small");
+        int runs = 20;
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> extra = List.of();
+        for (int i = 1; i < args.length; i++) {
+            String[] option = args[i].split("=", 2);
+            String value = option.length > 1 ? option[1] : "";
+            switch (option[0]) {
+                case "--cds" -> cds = value;
+                case "--native" -> nativeImage = value;
+                case "--dataset" -> dataset = Paths.get(value);
+                case "--runs" -> runs = Math.max(1, Integer.parseInt(value));
+                case "--java" -> java = value;
+                case "--args" -> extra = value.isBlank() ? List.of() : List.of(value.trim().split("\\s+"));
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        List<Variant> variants = new ArrayList<>();
+        variants.add(new Variant("jar", List.of(java, "-jar", jar)));
+        if (cds != null) {
+            requireFile(cds, "CDS archive (build it with mvn -Pcds package)");
+            variants.add(new Variant("cds", List.of(java, "-XX:SharedArchiveFile=" + cds, "-Xshare:auto", "-jar", jar)));
+        }
+        if (nativeImage != null) {
+            requireFile(nativeImage, "native image (build it with mvn -Pnative package on GraalVM)");
+            variants.add(new Variant("native", List.of(nativeImage)));
+        }
+
+        Set<String> expected = credentials(dataset.resolve("out.txt"));
+        Path output = Files.createTempFile("startup-bench-", ".txt");
+        List<List<Sample>> samples = new ArrayList<>();
+        try {
+            for (Variant variant : variants) {
+                // Warm-up: page cache and, for CDS, the archive mapping; not counted
+                run(variant, dataset, output, extra, expected);
+                samples.add(new ArrayList<>());
+            }
+            for (int r = 0; r < runs; r++) {
+                for (int v = 0; v < variants.size(); v++) {
+                    samples.get(v).add(run(variants.get(v), dataset, output, extra, expected));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(output);
+        }
+
+        System.out.printf("%d runs per variant on %s%n", runs, dataset);
+        System.out.printf("%-8s %12s %12s %12s %12s %12s%n", "variant", "result min", "result p50", "result p90",
+                "exit p50", "in-app p50");
+        for (int v = 0; v < variants.size(); v++) {
+            List<Sample> list = samples.get(v);
+            double[] result = list.stream().mapToDouble(Sample::result).sorted().toArray();
+            double[] exit = list.stream().mapToDouble(Sample::exit).sorted().toArray();
+            double[] work = list.stream().mapToDouble(Sample::work).sorted().toArray();
+            System.out.printf("%-8s %10.1fms %10.1fms %10.1fms %10.1fms %10.1fms%n", variants.get(v).name(),
+                    result[0], percentile(result, 0.5), percentile(result, 0.9), percentile(exit, 0.5),
+                    percentile(work, 0.5));
+        }
+    }
+
+    private static Sample run(Variant variant, Path dataset, Path output, List<String> extra, Set<String> expected)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(variant.command());
+        command.add(dataset.resolve("in.txt").toString());
+        command.add(dataset.resolve("dictionary.txt").toString());
+        command.add(output.toString());
+        command.addAll(extra);
+        Files.deleteIfExists(output);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long result = -1;
+        double work = Double.NaN;
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (result < 0 && line.startsWith(RESULT_LINE)) {
+                    result = System.nanoTime();
+                } else if (line.startsWith(WORK_LINE)) {
+                    work = Double.parseDouble(line.substring(WORK_LINE.length()).trim());
+                }
+            }
+        }
+        int status = process.waitFor();
+        long exit = System.nanoTime();
+        if (status != 0 || result < 0) {
+            throw new IllegalStateException(variant.name() + " failed (exit status " + status + "): " + command);
+        }
+        if (!credentials(output).equals(expected)) {
+            throw new IllegalStateException(variant.name() + " wrote a different result than "
+                    + dataset.resolve("out.txt"));
+        }
+        return new Sample((result - start) / 1e6, (exit - start) / 1e6, work);
+    }
+
+    // Output lines without the header, as a set: the order of the lines is not part of the result
+    private static Set<String> credentials(Path path) throws IOException {
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        return new HashSet<>(lines.subList(Math.min(1, lines.size()), lines.size()));
+    }
+
+    private static double percentile(double[] sorted, double q) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(q * sorted.length) - 1)];
+    }
+
+    private static void requireFile(String path, String what) {
+        if (!Files.isRegularFile(Paths.get(path))) {
+            throw new IllegalArgumentException("No " + what + " at " + path);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+// File: src/main/java/org/example/util/BatchHasher.java
+package org.example.util;
+
+import java.util.Locale;
+
+/**
+ * Digests of a batch of short messages packed into one buffer. Message i is
+ * data[offsets[i], offsets[i] + lengths[i]); its key lanes go to lanes[i * 4 .. i * 4 + 3]
+ * as big-endian longs, the same layout Hasher.hash(...) produces.
+ * Implementations keep per-thread scratch state, so one instance can be shared.
+ */
+public interface BatchHasher {
+
+    // Messages per call that keeps every engine's pipeline full
+    int BATCH = 64;
+
+    void hash(byte[] data, int[] offsets, int[] lengths, int count, long[] lanes);
+
+    String name();
+
+    // Algorithm whose digests this engine computes
+    default HashAlgorithm algorithm() {
+        return HashAlgorithm.SHA256;
+    }
+
+    // SHA-256 with one MessageDigest call per message (SHA-NI/AVX2 intrinsics where the JVM has them)
+    BatchHasher SCALAR = new BatchHasher() {
+        @Override
+        public void hash(byte[] data, int[] offsets, int[] lengths, int count, long[] lanes) {
+            for (int i = 0; i < count; i++) {
+                Hasher.sha256(data, offsets[i], lengths[i], lanes, i * 4);
+            }
+        }
+
+        @Override
+        public String name() {
+            return "scalar";
+        }
+    };
+
+    // One MessageDigest call per message of the given algorithm
+    static BatchHasher scalar(HashAlgorithm algorithm) {
+        if (algorithm == HashAlgorithm.SHA256) {
+            return SCALAR;
+        }
+        return new BatchHasher() {
+            @Override
+            public void hash(byte[] data, int[] offsets, int[] lengths, int count, long[] lanes) {
+                for (int i = 0; i < count; i++) {
+                    Hasher.hash(algorithm, data, offsets[i], lengths[i], lanes, i * 4);
+                }
+            }
+
+            @Override
+            public String name() {
+                return "scalar";
+            }
+
+            @Override
+            public HashAlgorithm algorithm() {
+                return algorithm;
+            }
+        };
+    }
+
+    /**
+     * Engine by name: "scalar", or "vector" for the multi-buffer SIMD engine, which needs
+     * the JVM to run with --add-modules jdk.incubator.vector.
+     * @throws IllegalArgumentException for an unknown name
+     * @throws IllegalStateException if the vector engine is unavailable
+     */
+    static BatchHasher named(String name) {
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "scalar" -> SCALAR;
+            case "vector" -> {
+                if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+                    throw new IllegalStateException(
+                            "The vector hasher needs the JVM option --add-modules jdk.incubator.vector");
+                }
+                // Only loaded once the module is known to be there
+                yield VectorSha256.create();
+            }
+            default -> throw new IllegalArgumentException("Unknown hasher: " + name);
+        };
+    }
+}
@@ -0,0 +1,84 @@
+// File: src/main/java/org/example/util/HashAlgorithm.java
+package org.example.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * Unsalted digest algorithms found in the target files. Every index keys on the first
+ * KEY_BYTES of a digest as four big-endian long lanes: shorter digests (MD5, SHA-1) are
+ * zero-padded, SHA-512 is keyed on its first half. Users of one algorithm are only ever
+ * compared with dictionary digests of the same algorithm.
+ */
+public enum HashAlgorithm {
+    MD5("MD5", 16),
+    SHA1("SHA-1", 20),
+    SHA256("SHA-256", 32),
+    SHA512("SHA-512", 64);
+
+    // Bytes of a digest that the lane-based indexes compare
+    public static final int KEY_BYTES = 32;
+    // Longest digest of any algorithm
+    public static final int MAX_BYTES = 64;
+
+    private static final HashAlgorithm[] VALUES = values();
+
+    private final String jcaName;
+    private final int digestBytes;
+
+    HashAlgorithm(String jcaName, int digestBytes) {
+        this.jcaName = jcaName;
+        this.digestBytes = digestBytes;
+    }
+
+    // MessageDigest algorithm name
+    public String jcaName() {
+        return jcaName;
+    }
+
+    public int digestBytes() {
+        return digestBytes;
+    }
+
+    public int hexLength() {
+        return digestBytes * 2;
+    }
+
+    // Lowercase name used on the command line, in file names and in metrics ("sha256")
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static HashAlgorithm ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    // Algorithm whose hex digest has this many characters, or null
+    public static HashAlgorithm ofHexLength(int length) {
+        for (HashAlgorithm algorithm : VALUES) {
+            if (algorithm.hexLength() == length) {
+                return algorithm;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Algorithm named in an input column: "md5", "sha1", "sha-256", "SHA512"...
+     * Case and a '-' after "sha" are ignored.
+     * @return the algorithm, or null if the name is unknown
+     */
+    public static HashAlgorithm parse(byte[] text, int offset, int length) {
+        return parse(new String(text, offset, length, StandardCharsets.US_ASCII));
+    }
+
+    public static HashAlgorithm parse(String name) {
+        String key = name.trim().toUpperCase(Locale.ROOT).replace("-", "");
+        for (HashAlgorithm algorithm : VALUES) {
+            if (algorithm.name().equals(key)) {
+                return algorithm;
+            }
+        }
+        return null;
+    }
+}
@@ -1,28 +1,255 @@
 // File: src/main/java/org/example/util/Hasher.java
 package org.example.util;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.HexFormat;
 
 
 public class Hasher {
-    private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
-        try {
-            return MessageDigest.getInstance("SHA-256");
-        } catch (NoSuchAlgorithmException e) {
-            // SHA-256 is guaranteed to exist on every Java platform; rethrow as unchecked if not.
-            throw new RuntimeException(e);
+    public static final int SHA256_BYTES = 32;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    // Reads big-endian longs straight out of a digest byte[] (no ByteBuffer wrapper per call)
+    private static final VarHandle LONG_BE =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    // Per-thread digests plus a scratch output buffer, so the byte paths never allocate.
+    // SHA-256 is created eagerly; the other algorithms on first use by this thread.
+    private static final class State {
+        final MessageDigest digest;
+        final MessageDigest[] others = new MessageDigest[HashAlgorithm.values().length];
+        final byte[] out = new byte[HashAlgorithm.MAX_BYTES];
+
+        State() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                // SHA-256 is guaranteed to exist on every Java platform; rethrow as unchecked if not.
+                throw new RuntimeException(e);
+            }
         }
-    });
 
-    public static String sha256(String input) {
-        MessageDigest digest = DIGEST.get();
-        digest.reset();
-        byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
+        MessageDigest digest(HashAlgorithm algorithm) {
+            if (algorithm == HashAlgorithm.SHA256) {
+                return digest;
+            }
+            MessageDigest other = others[algorithm.ordinal()];
+            if (other == null) {
+                try {
+                    other = MessageDigest.getInstance(algorithm.jcaName());
+                } catch (NoSuchAlgorithmException e) {
+                    // All four are required of every Java platform
+                    throw new IllegalStateException(e);
+                }
+                others[algorithm.ordinal()] = other;
+            }
+            return other;
+        }
+    }
+
+    private static final ThreadLocal<State> DIGEST = ThreadLocal.withInitial(State::new);
 
+    // Convenience wrapper: hex digest of the UTF-8 bytes of input
+    public static String sha256(String input) {
         // Use Java's HexFormat for fast byte[] -> hex conversion
-        return HexFormat.of().formatHex(hash);
+        return HEX.formatHex(sha256Bytes(input));
+    }
+
+    // Raw 32-byte digest, skipping the hex encode used by the String map
+    public static byte[] sha256Bytes(String input) {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        byte[] hash = new byte[SHA256_BYTES];
+        sha256(bytes, 0, bytes.length, hash, 0);
+        return hash;
+    }
+
+    /**
+     * Hashes input[offset, offset + length) into out[outOffset, outOffset + 32).
+     * Allocation-free: reuses this thread's MessageDigest.
+     */
+    public static void sha256(byte[] input, int offset, int length, byte[] out, int outOffset) {
+        MessageDigest digest = DIGEST.get().digest;
+        digest.update(input, offset, length);
+        try {
+            // digest(byte[], int, int) also resets the MessageDigest for the next call
+            digest.digest(out, outOffset, SHA256_BYTES);
+        } catch (DigestException e) {
+            // Only thrown when out is too small, which is a caller bug
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Hashes input[offset, offset + length) into four big-endian long lanes.
+     * Allocation-free: reuses this thread's MessageDigest and scratch buffer.
+     */
+    public static void sha256(byte[] input, int offset, int length, long[] lanes) {
+        sha256(input, offset, length, lanes, 0);
+    }
+
+    // Same as above, writing the four lanes to lanes[lanesOffset .. lanesOffset + 3]
+    public static void sha256(byte[] input, int offset, int length, long[] lanes, int lanesOffset) {
+        State state = DIGEST.get();
+        state.digest.update(input, offset, length);
+        try {
+            state.digest.digest(state.out, 0, SHA256_BYTES);
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+        lanes[lanesOffset] = lane(state.out, 0);
+        lanes[lanesOffset + 1] = lane(state.out, 1);
+        lanes[lanesOffset + 2] = lane(state.out, 2);
+        lanes[lanesOffset + 3] = lane(state.out, 3);
+    }
+
+    // Hex digest of the UTF-8 bytes of input under any supported algorithm
+    public static String hex(HashAlgorithm algorithm, String input) {
+        if (algorithm == HashAlgorithm.SHA256) {
+            return sha256(input);
+        }
+        return hex(algorithm, input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String hex(HashAlgorithm algorithm, byte[] input) {
+        byte[] hash = new byte[algorithm.digestBytes()];
+        digest(algorithm, input, 0, input.length, hash, 0);
+        return HEX.formatHex(hash);
+    }
+
+    // Full digest of input[offset, offset + length) into out[outOffset, outOffset + digestBytes)
+    public static void digest(HashAlgorithm algorithm, byte[] input, int offset, int length, byte[] out, int outOffset) {
+        MessageDigest digest = DIGEST.get().digest(algorithm);
+        digest.update(input, offset, length);
+        try {
+            digest.digest(out, outOffset, algorithm.digestBytes());
+        } catch (DigestException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * Hashes input[offset, offset + length) into the four key lanes of the algorithm
+     * (see HashAlgorithm) at lanes[lanesOffset .. lanesOffset + 3]. SHA-256 takes the
+     * same path as sha256(...); allocation-free for every algorithm.
+     */
+    public static void hash(HashAlgorithm algorithm, byte[] input, int offset, int length, long[] lanes, int lanesOffset) {
+        if (algorithm == HashAlgorithm.SHA256) {
+            sha256(input, offset, length, lanes, lanesOffset);
+            return;
+        }
+        State state = DIGEST.get();
+        MessageDigest digest = state.digest(algorithm);
+        digest.update(input, offset, length);
+        try {
+            digest.digest(state.out, 0, algorithm.digestBytes());
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+        if (algorithm.digestBytes() < HashAlgorithm.KEY_BYTES) {
+            Arrays.fill(state.out, algorithm.digestBytes(), HashAlgorithm.KEY_BYTES, (byte) 0);
+        }
+        lanes[lanesOffset] = lane(state.out, 0);
+        lanes[lanesOffset + 1] = lane(state.out, 1);
+        lanes[lanesOffset + 2] = lane(state.out, 2);
+        lanes[lanesOffset + 3] = lane(state.out, 3);
+    }
+
+    /**
+     * Writes the UTF-8 bytes of s into buffer without allocating for ASCII input.
+     * @return the encoded length, or -1 if it does not fit in buffer
+     */
+    public static int encodeUtf8(String s, byte[] buffer) {
+        int length = s.length();
+        if (length > buffer.length) {
+            return -1;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                // Rare non-ASCII word: let the JDK encoder handle it
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                if (bytes.length > buffer.length) {
+                    return -1;
+                }
+                System.arraycopy(bytes, 0, buffer, 0, bytes.length);
+                return bytes.length;
+            }
+            buffer[i] = (byte) c;
+        }
+        return length;
+    }
+
+    // Big-endian 8-byte lane i (0..3) of a SHA-256 digest
+    public static long lane(byte[] digest, int i) {
+        return (long) LONG_BE.get(digest, i * 8);
+    }
+
+    // Lowercase hex of a digest held as four big-endian lanes
+    public static String lanesToHex(long l0, long l1, long l2, long l3) {
+        return HEX.toHexDigits(l0) + HEX.toHexDigits(l1) + HEX.toHexDigits(l2) + HEX.toHexDigits(l3);
+    }
+
+    /**
+     * Decodes a 64-char hex SHA-256 digest into four long lanes.
+     * @return the lanes, or null if the string is not a valid SHA-256 hex digest
+     */
+    public static long[] hexToLanes(String hex) {
+        if (hex == null || hex.length() != SHA256_BYTES * 2) {
+            return null;
+        }
+        long[] lanes = new long[SHA256_BYTES / 8];
+        for (int i = 0; i < lanes.length; i++) {
+            int from = i * 16;
+            // ASCII hex only: Character.digit would also take e.g. fullwidth or Arabic-Indic digits
+            for (int j = from; j < from + 16; j++) {
+                if (!HexFormat.isHexDigit(hex.charAt(j))) {
+                    return null;
+                }
+            }
+            lanes[i] = HexFormat.fromHexDigitsToLong(hex, from, from + 16);
+        }
+        return lanes;
+    }
+
+    /**
+     * Decodes hex[offset, offset + length) into four long lanes without building a String.
+     * @return false if the slice is not a valid 64-char hex SHA-256 digest
+     */
+    public static boolean hexToLanes(byte[] hex, int offset, int length, long[] lanes) {
+        return length == SHA256_BYTES * 2 && decodeHex(hex, offset, length, lanes);
+    }
+
+    /**
+     * Decodes hex[offset, offset + length) into big-endian lanes of 16 hex digits each; a
+     * short last lane is left-aligned and the lanes after it are zeroed, so a 40-digit
+     * SHA-1 fills lanes 0, 1 and the top half of lane 2.
+     * @return false if the slice has a non-hex character or does not fit in lanes
+     */
+    public static boolean decodeHex(byte[] hex, int offset, int length, long[] lanes) {
+        if (length > lanes.length * 16) {
+            return false;
+        }
+        for (int i = 0; i < lanes.length; i++) {
+            long value = 0;
+            int from = offset + i * 16;
+            int to = Math.min(from + 16, offset + length);
+            for (int j = from; j < to; j++) {
+                if (!HexFormat.isHexDigit(hex[j])) {
+                    return false;
+                }
+                value = (value << 4) | HexFormat.fromHexDigit(hex[j]);
+            }
+            int digits = Math.max(0, to - from);
+            lanes[i] = digits == 0 ? 0 : value << (4 * (16 - digits));
+        }
+        return true;
     }
-}
\ No newline at end of file
+}
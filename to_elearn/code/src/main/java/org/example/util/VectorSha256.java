@@ -0,0 +1,194 @@
+// File: src/main/java/org/example/util/VectorSha256.java
+package org.example.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Multi-buffer SHA-256 on the Vector API: one single-block message per int lane, so a
+ * 128/256/512-bit machine compresses 4/8/16 words with one pass over the 64 rounds.
+ * Messages of up to 55 bytes fit one padded block; longer ones fall back to MessageDigest.
+ * Blocks are stored transposed (word t of every lane side by side) so the schedule and
+ * rounds only do whole-vector loads. Created through BatchHasher.named("vector"), which
+ * checks the module is present. VectorSha256Test compares it with MessageDigest at every
+ * lane width.
+ */
+final class VectorSha256 implements BatchHasher {
+
+    // Longest message that fits one block next to its 0x80 marker and 64-bit length
+    static final int MAX_SINGLE_BLOCK = 55;
+
+    // The platform's preferred shape; the org.example.vectorBits property (128, 256 or 512) forces
+    // another one, so the tests cover every width on any host. A constant either way, as the
+    // Vector API needs for its intrinsics
+    private static final VectorSpecies<Integer> SPECIES = species(Integer.getInteger("org.example.vectorBits", 0));
+    private static final int WIDTH = SPECIES.length();
+
+    private static final VarHandle INT_BE =
+            MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private static final int[] K = {
+        0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+        0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+        0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+        0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+        0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+        0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+        0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+        0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2,
+    };
+
+    private static final int[] H = {
+        0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a, 0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19,
+    };
+
+    // Per-thread message schedule, output words and lane -> message mapping
+    private static final class Scratch {
+        final int[] w = new int[64 * WIDTH];
+        final int[] digest = new int[8 * WIDTH];
+        final int[] members = new int[WIDTH];
+    }
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private VectorSha256() {
+    }
+
+    static VectorSha256 create() {
+        return new VectorSha256();
+    }
+
+    private static VectorSpecies<Integer> species(int bits) {
+        return switch (bits) {
+            case 0 -> IntVector.SPECIES_PREFERRED;
+            case 128 -> IntVector.SPECIES_128;
+            case 256 -> IntVector.SPECIES_256;
+            case 512 -> IntVector.SPECIES_512;
+            default -> throw new IllegalStateException("org.example.vectorBits must be 128, 256 or 512, not " + bits);
+        };
+    }
+
+    @Override
+    public String name() {
+        return "vector" + WIDTH * Integer.SIZE;
+    }
+
+    @Override
+    public void hash(byte[] data, int[] offsets, int[] lengths, int count, long[] lanes) {
+        Scratch s = scratch.get();
+        int filled = 0;
+        for (int i = 0; i < count; i++) {
+            if (lengths[i] > MAX_SINGLE_BLOCK) {
+                Hasher.sha256(data, offsets[i], lengths[i], lanes, i * 4);
+                continue;
+            }
+            s.members[filled++] = i;
+            if (filled == WIDTH) {
+                compress(s, filled, data, offsets, lengths, lanes);
+                filled = 0;
+            }
+        }
+        if (filled > 0) {
+            compress(s, filled, data, offsets, lengths, lanes);
+        }
+    }
+
+    private static void compress(Scratch s, int filled, byte[] data, int[] offsets, int[] lengths, long[] lanes) {
+        int[] w = s.w;
+        for (int k = 0; k < WIDTH; k++) {
+            if (k < filled) {
+                int m = s.members[k];
+                pack(w, k, data, offsets[m], lengths[m]);
+            } else {
+                // Idle lanes hash an empty message; their output is ignored
+                pack(w, k, data, 0, 0);
+            }
+        }
+
+        for (int t = 16; t < 64; t++) {
+            IntVector w2 = IntVector.fromArray(SPECIES, w, (t - 2) * WIDTH);
+            IntVector w15 = IntVector.fromArray(SPECIES, w, (t - 15) * WIDTH);
+            IntVector s1 = w2.lanewise(VectorOperators.ROR, 17)
+                    .lanewise(VectorOperators.XOR, w2.lanewise(VectorOperators.ROR, 19))
+                    .lanewise(VectorOperators.XOR, w2.lanewise(VectorOperators.LSHR, 10));
+            IntVector s0 = w15.lanewise(VectorOperators.ROR, 7)
+                    .lanewise(VectorOperators.XOR, w15.lanewise(VectorOperators.ROR, 18))
+                    .lanewise(VectorOperators.XOR, w15.lanewise(VectorOperators.LSHR, 3));
+            IntVector.fromArray(SPECIES, w, (t - 16) * WIDTH)
+                    .add(s0)
+                    .add(IntVector.fromArray(SPECIES, w, (t - 7) * WIDTH))
+                    .add(s1)
+                    .intoArray(w, t * WIDTH);
+        }
+
+        IntVector a = IntVector.broadcast(SPECIES, H[0]);
+        IntVector b = IntVector.broadcast(SPECIES, H[1]);
+        IntVector c = IntVector.broadcast(SPECIES, H[2]);
+        IntVector d = IntVector.broadcast(SPECIES, H[3]);
+        IntVector e = IntVector.broadcast(SPECIES, H[4]);
+        IntVector f = IntVector.broadcast(SPECIES, H[5]);
+        IntVector g = IntVector.broadcast(SPECIES, H[6]);
+        IntVector h = IntVector.broadcast(SPECIES, H[7]);
+        for (int t = 0; t < 64; t++) {
+            IntVector sigma1 = e.lanewise(VectorOperators.ROR, 6)
+                    .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 11))
+                    .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 25));
+            IntVector ch = e.and(f).lanewise(VectorOperators.XOR, e.not().and(g));
+            IntVector t1 = h.add(sigma1).add(ch).add(K[t]).add(IntVector.fromArray(SPECIES, w, t * WIDTH));
+            IntVector sigma0 = a.lanewise(VectorOperators.ROR, 2)
+                    .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 13))
+                    .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 22));
+            IntVector maj = a.and(b).lanewise(VectorOperators.XOR, a.and(c))
+                    .lanewise(VectorOperators.XOR, b.and(c));
+            h = g;
+            g = f;
+            f = e;
+            e = d.add(t1);
+            d = c;
+            c = b;
+            b = a;
+            a = t1.add(sigma0.add(maj));
+        }
+
+        int[] out = s.digest;
+        a.add(H[0]).intoArray(out, 0);
+        b.add(H[1]).intoArray(out, WIDTH);
+        c.add(H[2]).intoArray(out, 2 * WIDTH);
+        d.add(H[3]).intoArray(out, 3 * WIDTH);
+        e.add(H[4]).intoArray(out, 4 * WIDTH);
+        f.add(H[5]).intoArray(out, 5 * WIDTH);
+        g.add(H[6]).intoArray(out, 6 * WIDTH);
+        h.add(H[7]).intoArray(out, 7 * WIDTH);
+        for (int k = 0; k < filled; k++) {
+            int base = s.members[k] * 4;
+            for (int j = 0; j < 4; j++) {
+                lanes[base + j] = (long) out[2 * j * WIDTH + k] << 32
+                        | (out[(2 * j + 1) * WIDTH + k] & 0xFFFFFFFFL);
+            }
+        }
+    }
+
+    // Writes the padded single block of data[offset, offset + length) into lane k of w
+    private static void pack(int[] w, int k, byte[] data, int offset, int length) {
+        int words = length >>> 2;
+        for (int t = 0; t < words; t++) {
+            w[t * WIDTH + k] = (int) INT_BE.get(data, offset + t * 4);
+        }
+        // Tail bytes and the 0x80 marker share the next word
+        int tail = 0x80 << (24 - 8 * (length & 3));
+        for (int i = words * 4; i < length; i++) {
+            tail |= (data[offset + i] & 0xFF) << (24 - 8 * (i & 3));
+        }
+        w[words * WIDTH + k] = tail;
+        // Zero fill up to and including word 14, the high half of the 64-bit bit length
+        for (int t = words + 1; t < 15; t++) {
+            w[t * WIDTH + k] = 0;
+        }
+        w[15 * WIDTH + k] = length * 8;
+    }
+}
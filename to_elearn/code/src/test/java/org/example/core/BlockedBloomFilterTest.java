@@ -0,0 +1,46 @@
+// File: src/test/java/org/example/core/BlockedBloomFilterTest.java
+package org.example.core;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * The configured false-positive rate is met by the blocked layout, measured on random
+ * digests (digest lanes are uniformly random, like these).
+ */
+class BlockedBloomFilterTest {
+
+    private static final int KEYS = 100_000;
+    private static final int PROBES = 1_000_000;
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0.001, 0.01, 0.05})
+    void meetsTheTargetRate(double fpr) {
+        BlockedBloomFilter filter = new BlockedBloomFilter(KEYS, fpr);
+        SplittableRandom random = new SplittableRandom(42);
+        long[] keys = new long[KEYS * 2];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        for (int i = 0; i < KEYS; i++) {
+            filter.add(keys[2 * i], keys[2 * i + 1]);
+        }
+        for (int i = 0; i < KEYS; i++) {
+            assertTrue(filter.mightContain(keys[2 * i], keys[2 * i + 1]), "false negative");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < PROBES; i++) {
+            if (filter.mightContain(random.nextLong(), random.nextLong())) {
+                falsePositives++;
+            }
+        }
+        double measured = (double) falsePositives / PROBES;
+        // 10% slack for sampling noise (about 3 standard deviations at 0.001)
+        assertTrue(measured <= fpr * 1.1, "measured " + measured + " for a target of " + fpr);
+    }
+}
@@ -0,0 +1,106 @@
+// File: src/test/java/org/example/core/SortMergeJoinEngineTest.java
+package org.example.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.example.io.MappedTextFile;
+import org.example.report.StatusReporter;
+import org.example.util.HashAlgorithm;
+import org.example.util.Hasher;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Every users-file line whose password is in the dictionary is cracked exactly once, when
+ * several lines share a hash and the dictionary repeats words, over several algorithm groups.
+ */
+class SortMergeJoinEngineTest {
+
+    private static final HashAlgorithm[] ALGORITHMS = {HashAlgorithm.SHA256, HashAlgorithm.MD5, HashAlgorithm.SHA1};
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 3})
+    void cracksEveryTargetLine(int threads) throws Exception {
+        // Dictionary: each word twice or more, so equal word digests meet in the word runs
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            words.add("word" + i);
+        }
+        List<String> dictionaryLines = new ArrayList<>(words);
+        dictionaryLines.addAll(words);
+        dictionaryLines.addAll(words.subList(0, 50));
+        Collections.shuffle(dictionaryLines, new Random(11));
+
+        // Users: several lines per hash, some with the same username, upper- and lower-case hex
+        List<String> userLines = new ArrayList<>();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            HashAlgorithm algorithm = ALGORITHMS[i % ALGORITHMS.length];
+            String password = i % 10 == 9 ? "missing" + i : "word" + (i * 7 % 90);
+            String hash = Hasher.hex(algorithm, password);
+            for (int copy = 0; copy <= i % 3; copy++) {
+                String user = copy == 2 ? "user" + i : "user" + i + "_" + copy;
+                String hex = copy == 1 ? hash.toUpperCase(Locale.ROOT) : hash;
+                userLines.add(user + "," + hex);
+                if (!password.startsWith("missing")) {
+                    expected.add(user + "," + hex + "," + password);
+                }
+            }
+        }
+        // Not a user line at all, and a hash no algorithm has: neither is a target
+        userLines.add("nohash");
+        userLines.add("bad,not-hex");
+        Collections.shuffle(userLines, new Random(13));
+
+        Path usersPath = write("in.txt", userLines);
+        Path dictionaryPath = write("dictionary.txt", dictionaryLines);
+        LongAdder passwordsFound = new LongAdder();
+        LongAdder hashesComputed = new LongAdder();
+        LongAdder usersChecked = new LongAdder();
+        LongAdder bytesProcessed = new LongAdder();
+        List<String> cracked = Collections.synchronizedList(new ArrayList<>());
+        SortMergeJoinEngine engine = new SortMergeJoinEngine(MappedTextFile.map(usersPath),
+                MappedTextFile.map(dictionaryPath), tempDir, threads, passwordsFound, hashesComputed,
+                usersChecked, bytesProcessed, credential -> cracked.add(
+                        credential.username() + "," + credential.hashedPassword() + ","
+                                + credential.plainPassword()));
+
+        engine.sortTargets();
+        assertEquals(userLines.size() - 2, engine.targetCount());
+        assertEquals(1, engine.skippedLines());
+        assertEquals(EnumSet.of(HashAlgorithm.SHA256, HashAlgorithm.MD5, HashAlgorithm.SHA1), engine.algorithms());
+        engine.startAttack(new StatusReporter(engine.targetCount(), passwordsFound, usersChecked, hashesComputed,
+                0, bytesProcessed, 0));
+
+        Collections.sort(expected);
+        Collections.sort(cracked);
+        assertEquals(expected, cracked);
+        assertEquals(expected.size(), passwordsFound.sum());
+        try (var left = Files.list(tempDir)) {
+            assertEquals(List.of("dictionary.txt", "in.txt"), left.map(path -> path.getFileName().toString())
+                    .sorted().toList(), "run files left behind");
+        }
+    }
+
+    private Path write(String name, List<String> lines) throws IOException {
+        Path path = tempDir.resolve(name);
+        Files.write(path, (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+}
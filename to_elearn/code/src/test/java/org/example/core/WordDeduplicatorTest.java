@@ -0,0 +1,135 @@
+// File: src/test/java/org/example/core/WordDeduplicatorTest.java
+package org.example.core;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import org.example.io.MappedTextFile;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * The store holds each distinct word once, in partition then unsigned byte order, and
+ * gives every word back by id, with and without spill partitions.
+ */
+class WordDeduplicatorTest {
+
+    // About 1.5 MB of words: three times that is over the smallest budget, so it spills
+    private static final int FILLER_WORDS = 150_000;
+
+    @TempDir
+    Path tempDir;
+
+    @ParameterizedTest
+    @ValueSource(longs = {1L << 20, 1L << 30})
+    void storesEachDistinctWordOnceInOrder(long memoryBudget) throws IOException {
+        List<byte[]> words = words();
+        Path dictionaryPath = tempDir.resolve("dictionary.txt");
+        List<byte[]> lines = new ArrayList<>(words);
+        lines.addAll(words.subList(0, words.size() / 3));
+        Collections.shuffle(lines, new Random(7));
+        writeLines(dictionaryPath, lines);
+
+        WordDeduplicator deduplicator = new WordDeduplicator(tempDir.resolve("spill"), memoryBudget);
+        WordStore store = deduplicator.deduplicate(MappedTextFile.map(dictionaryPath));
+        int partitions = deduplicator.partitions();
+        if (memoryBudget == 1L << 20) {
+            assertTrue(partitions > 1, "expected spill partitions, got " + partitions);
+        } else {
+            assertEquals(1, partitions);
+        }
+        assertEquals(lines.size(), deduplicator.lines());
+
+        // Ids run partition by partition, each partition in unsigned byte order
+        List<byte[]> expected = new ArrayList<>();
+        for (int p = 0; p < partitions; p++) {
+            TreeSet<byte[]> partition = new TreeSet<>(Arrays::compareUnsigned);
+            for (byte[] word : words) {
+                if (partitions == 1 || (WordDeduplicator.hash(word, 0, word.length) >>> 33) % partitions == p) {
+                    partition.add(word);
+                }
+            }
+            expected.addAll(partition);
+        }
+        assertEquals(expected.size(), store.size());
+
+        List<byte[]> stored = new ArrayList<>();
+        store.forEach(0, store.size(), (id, word, length) -> {
+            assertEquals(stored.size(), id);
+            stored.add(Arrays.copyOf(word, length));
+        });
+        for (int id = 0; id < expected.size(); id++) {
+            assertArrayEquals(expected.get(id), stored.get(id), "word " + id);
+        }
+
+        // Random access decodes from the start of the word's block, whichever slot it is in
+        for (int id = 0; id < expected.size(); id++) {
+            assertEquals(new String(expected.get(id), StandardCharsets.UTF_8), store.word(id), "word " + id);
+        }
+        int from = 3 * WordStore.BLOCK;
+        int[] next = {from};
+        store.forEach(from, from + 2 * WordStore.BLOCK + 5, (id, word, length) -> {
+            assertEquals(next[0]++, id);
+            assertArrayEquals(expected.get(id), Arrays.copyOf(word, length));
+        });
+        assertEquals(from + 2 * WordStore.BLOCK + 5, next[0]);
+    }
+
+    // Distinct words: filler plus prefixes of each other, embedded NULs and long runs of one sort key
+    private static List<byte[]> words() {
+        TreeSet<byte[]> words = new TreeSet<>(Arrays::compareUnsigned);
+        for (String word : new String[] {"pass", "pass\0", "pass\0\0", "pass\0word", "password", "password1",
+                "passwords", "p", "\0", "\0\0", "a\0b", "a\0c", "été", "zzÿ"}) {
+            words.add(word.getBytes(StandardCharsets.UTF_8));
+        }
+        // Far more than an insertion sort's worth of words that share their first 8 bytes
+        // (and some their first 16), so the sort has to look past the first key
+        for (int i = 0; i < 300; i++) {
+            words.add(("samekey!" + i).getBytes(StandardCharsets.UTF_8));
+            words.add(("samekey!samekey!" + (char) ('a' + i % 26) + i).getBytes(StandardCharsets.UTF_8));
+        }
+        words.add("samekey!".getBytes(StandardCharsets.UTF_8));
+        words.add("samekey!\0".getBytes(StandardCharsets.UTF_8));
+        words.add("samekey!\0\0".getBytes(StandardCharsets.UTF_8));
+        words.add("samekey!samekey!".getBytes(StandardCharsets.UTF_8));
+
+        SplittableRandom random = new SplittableRandom(42);
+        while (words.size() < FILLER_WORDS) {
+            byte[] word = new byte[4 + random.nextInt(12)];
+            for (int i = 0; i < word.length; i++) {
+                word[i] = (byte) ('a' + random.nextInt(26));
+            }
+            words.add(word);
+        }
+        return new ArrayList<>(words);
+    }
+
+    private static void writeLines(Path path, List<byte[]> lines) throws IOException {
+        int size = 0;
+        for (byte[] line : lines) {
+            size += line.length + 1;
+        }
+        byte[] content = new byte[size];
+        int position = 0;
+        for (byte[] line : lines) {
+            System.arraycopy(line, 0, content, position, line.length);
+            position += line.length;
+            content[position++] = '\n';
+        }
+        Files.write(path, content);
+    }
+}
@@ -0,0 +1,184 @@
+// File: src/test/java/org/example/io/DigestRunSorterTest.java
+package org.example.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32C;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs come out in unsigned digest order, whichever lanes have their high bit set, and
+ * the merge keeps the smallest payload of each digest across runs.
+ */
+class DigestRunSorterTest {
+
+    // A handful of records per run, so every digest below is spread over several runs
+    private static final int RUN_RECORDS = 7;
+
+    // The digest as an unsigned 256-bit number, then the payload
+    private static final Comparator<long[]> ORDER = (a, b) -> {
+        for (int lane = 0; lane < 4; lane++) {
+            int c = new BigInteger(Long.toUnsignedString(a[lane])).compareTo(
+                    new BigInteger(Long.toUnsignedString(b[lane])));
+            if (c != 0) {
+                return c;
+            }
+        }
+        return Long.compare(a[4], b[4]);
+    };
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sortsRunsAndMergesThemByUnsignedDigest() throws IOException {
+        List<long[]> records = records();
+        List<Path> runs;
+        try (DigestRunSorter sorter = new DigestRunSorter(tempDir, RUN_RECORDS)) {
+            for (long[] r : records) {
+                sorter.add(r[0], r[1], r[2], r[3], r[4]);
+            }
+            runs = sorter.finish();
+            assertEquals((records.size() + RUN_RECORDS - 1) / RUN_RECORDS, runs.size());
+
+            // Each run is sorted on its own
+            for (Path run : runs) {
+                List<long[]> sorted = read(run);
+                for (int i = 1; i < sorted.size(); i++) {
+                    assertTrue(ORDER.compare(sorted.get(i - 1), sorted.get(i)) <= 0,
+                            "run " + run + " out of order at " + i);
+                }
+            }
+
+            // The cursor walks every record of every run in the full order, duplicates included
+            List<long[]> expected = new ArrayList<>(records);
+            expected.sort(ORDER);
+            List<FileChannel> channels = new ArrayList<>();
+            try {
+                DigestRunSorter.Cursor cursor = new DigestRunSorter.Cursor(sources(runs, channels));
+                for (long[] r : expected) {
+                    assertTrue(cursor.next());
+                    assertArrayEquals(r, new long[] {cursor.lane(0), cursor.lane(1), cursor.lane(2),
+                            cursor.lane(3), cursor.payload()});
+                }
+                assertFalse(cursor.next());
+            } finally {
+                close(channels);
+            }
+
+            // The merge keeps the first, i.e. smallest, payload of each digest
+            List<long[]> distinct = new ArrayList<>();
+            for (long[] r : expected) {
+                if (distinct.isEmpty() || !sameDigest(distinct.get(distinct.size() - 1), r)) {
+                    distinct.add(r);
+                }
+            }
+            Path merged = tempDir.resolve("merged.bin");
+            CRC32C crc = new CRC32C();
+            long written;
+            try (FileChannel out = FileChannel.open(merged, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                written = DigestRunSorter.merge(sources(runs, channels), out, crc);
+            } finally {
+                close(channels);
+            }
+            assertEquals(distinct.size(), written);
+            List<long[]> result = read(merged);
+            assertEquals(distinct.size(), result.size());
+            for (int i = 0; i < distinct.size(); i++) {
+                assertArrayEquals(distinct.get(i), result.get(i), "record " + i);
+            }
+            CRC32C fileCrc = new CRC32C();
+            fileCrc.update(Files.readAllBytes(merged));
+            assertEquals(fileCrc.getValue(), crc.getValue());
+        }
+        for (Path run : runs) {
+            assertFalse(Files.exists(run), "run left behind: " + run);
+        }
+    }
+
+    // Random digests, digests that differ only in the sign bit of one lane, and repeated digests
+    // whose smallest payload is added last
+    private static List<long[]> records() {
+        List<long[]> records = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 200; i++) {
+            records.add(new long[] {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong(),
+                    random.nextLong(1L << 40)});
+        }
+        long[] signs = {0, 1, Long.MAX_VALUE, Long.MIN_VALUE, Long.MIN_VALUE + 1, -1};
+        for (int lane = 0; lane < 4; lane++) {
+            for (long value : signs) {
+                long[] r = {0x1234L, Long.MIN_VALUE, -1, 7, records.size()};
+                r[lane] = value;
+                records.add(r);
+            }
+        }
+        for (int i = 0; i < 20; i++) {
+            long[] digest = {random.nextLong(), random.nextLong() | Long.MIN_VALUE, random.nextLong(), -i};
+            for (int copy = 5; copy >= 0; copy--) {
+                records.add(new long[] {digest[0], digest[1], digest[2], digest[3], 1000L * i + copy});
+            }
+        }
+        // Spread the copies of a digest over the runs
+        for (int i = records.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long[] t = records.get(i);
+            records.set(i, records.get(j));
+            records.set(j, t);
+        }
+        return records;
+    }
+
+    private static boolean sameDigest(long[] a, long[] b) {
+        return a[0] == b[0] && a[1] == b[1] && a[2] == b[2] && a[3] == b[3];
+    }
+
+    private static List<DigestRunSorter.Source> sources(List<Path> runs, List<FileChannel> channels)
+            throws IOException {
+        List<DigestRunSorter.Source> sources = new ArrayList<>();
+        for (Path run : runs) {
+            FileChannel channel = FileChannel.open(run, StandardOpenOption.READ);
+            channels.add(channel);
+            sources.add(new DigestRunSorter.Source(channel, 0, channel.size()));
+        }
+        return sources;
+    }
+
+    private static void close(List<FileChannel> channels) throws IOException {
+        for (FileChannel channel : channels) {
+            channel.close();
+        }
+        channels.clear();
+    }
+
+    private static List<long[]> read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        assertEquals(0, buffer.remaining() % DigestRunSorter.RECORD_BYTES);
+        List<long[]> records = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            long[] r = new long[DigestRunSorter.STRIDE];
+            for (int i = 0; i < r.length; i++) {
+                r[i] = buffer.getLong();
+            }
+            records.add(r);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,77 @@
+// File: src/test/java/org/example/util/VectorSha256Test.java
+package org.example.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.security.MessageDigest;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Bit-for-bit comparison of the vector engine with MessageDigest. Surefire runs this class
+ * once per vector shape (org.example.vectorBits = 128, 256, 512) and once at the preferred one.
+ */
+class VectorSha256Test {
+
+    private final VectorSha256 hasher = VectorSha256.create();
+
+    @Test
+    void usesTheRequestedWidth() {
+        Integer bits = Integer.getInteger("org.example.vectorBits");
+        if (bits != null) {
+            assertEquals("vector" + bits, hasher.name());
+        }
+    }
+
+    // One message per call: a single busy lane, the others hash the idle empty block
+    @Test
+    void everyLengthAlone() throws Exception {
+        Random random = new Random(1);
+        for (int length = 0; length <= 80; length++) {
+            byte[] data = new byte[length + 3];
+            random.nextBytes(data);
+            long[] lanes = new long[4];
+            hasher.hash(data, new int[] {3}, new int[] {length}, 1, lanes);
+            assertArrayEquals(reference(data, 3, length), lanes, length + "-byte message");
+        }
+    }
+
+    // Full batches mixing single-block lengths with the > 55-byte MessageDigest fallback
+    @Test
+    void mixedBatches() throws Exception {
+        Random random = new Random(0x5EED);
+        int count = 2 * BatchHasher.BATCH;
+        int[] offsets = new int[count];
+        int[] lengths = new int[count];
+        byte[] data = new byte[count * 80];
+        random.nextBytes(data);
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            offsets[i] = position;
+            lengths[i] = (i * 7) % 81;
+            position += lengths[i];
+        }
+
+        long[] lanes = new long[count * 4];
+        hasher.hash(data, offsets, lengths, count, lanes);
+        for (int i = 0; i < count; i++) {
+            long[] actual = new long[4];
+            System.arraycopy(lanes, i * 4, actual, 0, 4);
+            assertArrayEquals(reference(data, offsets[i], lengths[i]), actual,
+                    "message " + i + " of " + lengths[i] + " bytes");
+        }
+    }
+
+    private static long[] reference(byte[] data, int offset, int length) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        digest.update(data, offset, length);
+        byte[] bytes = digest.digest();
+        long[] lanes = new long[4];
+        for (int j = 0; j < 4; j++) {
+            lanes[j] = Hasher.lane(bytes, j);
+        }
+        return lanes;
+    }
+}